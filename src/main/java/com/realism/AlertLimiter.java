@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Arrays;
+
+class AlertLimiter
+{
+	static final int CHANNEL_CHAT = 0;
+	static final int CHANNEL_NOTIFY = 1;
+
+	private static final int CHANNEL_COUNT = 2;
+
+	private final int[] tokens;
+	private final int[] refilledAt;
+	private int capacity = 1;
+	private int refillTicks;
+
+	AlertLimiter(int meterCount)
+	{
+		tokens = new int[meterCount * CHANNEL_COUNT];
+		refilledAt = new int[meterCount * CHANNEL_COUNT];
+		reset();
+	}
+
+	void configure(int capacity, int refillTicks)
+	{
+		this.capacity = Math.max(1, capacity);
+		this.refillTicks = Math.max(0, refillTicks);
+		for (int i = 0; i < tokens.length; i++)
+		{
+			tokens[i] = Math.min(tokens[i], this.capacity);
+		}
+	}
+
+	void reset()
+	{
+		Arrays.fill(tokens, capacity);
+		Arrays.fill(refilledAt, 0);
+	}
+
+	// Token bucket per meter and channel: each alert takes a token and one comes back every refillTicks
+	boolean tryAcquire(int meter, int channel, int tick)
+	{
+		if (refillTicks == 0)
+		{
+			return true;
+		}
+
+		int bucket = meter * CHANNEL_COUNT + channel;
+		int gained = (tick - refilledAt[bucket]) / refillTicks;
+		if (gained > 0)
+		{
+			tokens[bucket] = Math.min(capacity, tokens[bucket] + gained);
+			refilledAt[bucket] += gained * refillTicks;
+		}
+		if (tokens[bucket] == capacity)
+		{
+			// A full bucket does not bank time towards the next refill
+			refilledAt[bucket] = tick;
+		}
+
+		if (tokens[bucket] == 0)
+		{
+			return false;
+		}
+		tokens[bucket]--;
+		return true;
+	}
+}
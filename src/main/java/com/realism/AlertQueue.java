@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.Color;
+
+class AlertQueue
+{
+	static final String CRITICAL_TAG = colourTag(Color.RED);
+
+	private static final int CAPACITY = 8;
+
+	private final String[] chatLines = new String[CAPACITY];
+	private final String[] notifications = new String[CAPACITY];
+	private final StringBuilder builder = new StringBuilder();
+	private int chatCount;
+	private int notificationCount;
+
+	// Alerts past the capacity in one tick are dropped; the bucket limiter makes that rare
+	void addChat(String colourTag, String message)
+	{
+		if (chatCount < CAPACITY)
+		{
+			chatLines[chatCount++] = colourTag + message;
+		}
+	}
+
+	void addNotification(String message)
+	{
+		if (notificationCount < CAPACITY)
+		{
+			notifications[notificationCount++] = message;
+		}
+	}
+
+	boolean isEmpty()
+	{
+		return chatCount == 0 && notificationCount == 0;
+	}
+
+	String drainChat()
+	{
+		String joined = join(chatLines, chatCount);
+		chatCount = 0;
+		return joined;
+	}
+
+	String drainNotifications()
+	{
+		String joined = join(notifications, notificationCount);
+		notificationCount = 0;
+		return joined;
+	}
+
+	void clear()
+	{
+		drainChat();
+		drainNotifications();
+	}
+
+	static String colourTag(Color colour)
+	{
+		return String.format("<col=%06x>", colour.getRGB() & 0xFFFFFF);
+	}
+
+	private String join(String[] lines, int count)
+	{
+		if (count == 0)
+		{
+			return null;
+		}
+		builder.setLength(0);
+		for (int i = 0; i < count; i++)
+		{
+			if (i > 0)
+			{
+				builder.append(' ');
+			}
+			builder.append(lines[i]);
+			lines[i] = null;
+		}
+		return builder.toString();
+	}
+}
@@ -5,7 +5,6 @@
  */
 package com.realism;
 
-import java.util.HashMap;
 import java.util.Map;
 import net.runelite.api.ItemContainer;
 
@@ -16,62 +15,140 @@ class ConsumptionDetector
 		void onItemConsumed(int itemId, int count);
 	}
 
-	private final Map<Integer, Integer> inventorySnapshot = new HashMap<>();
+	private static final int PENDING_CAPACITY = 8;
+	private static final int CORRELATION_TICKS = 3;
+
+	private final DoseFamilyIndex doseFamilies;
+	private final ItemSnapshot inventorySnapshot = new ItemSnapshot();
+	private final int[] pendingItemIds = new int[PENDING_CAPACITY];
+	private final int[] pendingTicks = new int[PENDING_CAPACITY];
+	private final int[] consumedItemIds = new int[PENDING_CAPACITY];
+	private int pendingHead;
+	private boolean suspended;
+
+	ConsumptionDetector(DoseFamilyIndex doseFamilies)
+	{
+		this.doseFamilies = doseFamilies;
+	}
+
+	// Receives every inventory quantity change, whether or not it was consumption
+	void setQuantityListener(ItemSnapshot.QuantityListener listener)
+	{
+		inventorySnapshot.setListener(listener);
+	}
 
 	void reset()
 	{
 		inventorySnapshot.clear();
+		clearPending();
+		suspended = false;
+	}
+
+	void suspend()
+	{
+		suspended = true;
+	}
+
+	void resume(ItemContainer container)
+	{
+		suspended = false;
+		clearPending();
+		initializeSnapshot(container);
+	}
+
+	void recordConsumeClick(int itemId, int tick)
+	{
+		if (itemId <= 0)
+		{
+			return;
+		}
+		pendingItemIds[pendingHead] = itemId;
+		pendingTicks[pendingHead] = tick;
+		pendingHead = (pendingHead + 1) % PENDING_CAPACITY;
 	}
 
 	void initializeSnapshot(ItemContainer container)
 	{
-		inventorySnapshot.clear();
-		if (container == null)
+		inventorySnapshot.update(container);
+	}
+
+	void handleInventoryChange(ItemContainer container, int tick, ConsumptionHandler handler)
+	{
+		// While a bank or trade is open the snapshot waits for resume, which reports the net change once
+		if (container == null || suspended)
 		{
 			return;
 		}
-		for (int slot = 0; slot < container.size(); slot++)
+
+		// Nothing eaten or drunk recently means any decrease is a drop, deposit or trade
+		if (!expirePending(tick))
+		{
+			inventorySnapshot.update(container);
+			return;
+		}
+
+		Map<Integer, Integer> newSnapshot = inventorySnapshot.read(container);
+		int consumedCount = 0;
+		for (int i = 0; i < PENDING_CAPACITY; i++)
 		{
-			int itemId = container.getItemId(slot);
-			int qty = container.getQuantity(slot);
-			if (itemId > 0 && qty > 0)
+			int itemId = pendingItemIds[i];
+			if (itemId <= 0)
+			{
+				continue;
+			}
+			// Each click consumes a single item, so later clicks on the same item see the remainder
+			int oldQty = inventorySnapshot.getQuantity(itemId) - countOf(consumedItemIds, consumedCount, itemId);
+			int newQty = newSnapshot.getOrDefault(itemId, 0);
+			if (oldQty - newQty > 0)
 			{
-				inventorySnapshot.merge(itemId, qty, Integer::sum);
+				consumedItemIds[consumedCount++] = itemId;
+				pendingItemIds[i] = 0;
+				// A dose or portion step reports the family's full item so every step classifies alike
+				handler.onItemConsumed(doseFamilies.getCanonicalItemId(itemId), 1);
 			}
 		}
+
+		inventorySnapshot.commit();
 	}
 
-	void handleInventoryChange(ItemContainer container, ConsumptionHandler handler)
+	private static int countOf(int[] itemIds, int length, int itemId)
 	{
-		if (container == null)
+		int count = 0;
+		for (int i = 0; i < length; i++)
 		{
-			return;
-		}
-
-		Map<Integer, Integer> newSnapshot = new HashMap<>();
-		for (int slot = 0; slot < container.size(); slot++)
-		{
-			int itemId = container.getItemId(slot);
-			int qty = container.getQuantity(slot);
-			if (itemId > 0 && qty > 0)
+			if (itemIds[i] == itemId)
 			{
-				newSnapshot.merge(itemId, qty, Integer::sum);
+				count++;
 			}
 		}
+		return count;
+	}
 
-		for (Map.Entry<Integer, Integer> entry : inventorySnapshot.entrySet())
+	private boolean expirePending(int tick)
+	{
+		boolean live = false;
+		for (int i = 0; i < PENDING_CAPACITY; i++)
 		{
-			int itemId = entry.getKey();
-			int oldQty = entry.getValue();
-			int newQty = newSnapshot.getOrDefault(itemId, 0);
-			int consumed = oldQty - newQty;
-			if (consumed > 0)
+			if (pendingItemIds[i] <= 0)
+			{
+				continue;
+			}
+			if (tick - pendingTicks[i] > CORRELATION_TICKS)
 			{
-				handler.onItemConsumed(itemId, consumed);
+				pendingItemIds[i] = 0;
+				continue;
 			}
+			live = true;
 		}
+		return live;
+	}
 
-		inventorySnapshot.clear();
-		inventorySnapshot.putAll(newSnapshot);
+	private void clearPending()
+	{
+		for (int i = 0; i < PENDING_CAPACITY; i++)
+		{
+			pendingItemIds[i] = 0;
+		}
+		pendingHead = 0;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ConsumptionDispatcher implements ConsumptionDetector.ConsumptionHandler
+{
+	interface Handler
+	{
+		// Amount applied per item consumed, or 0 when the item does not concern this handler
+		double resolve(int itemId);
+
+		void apply(double amount, int count);
+	}
+
+	private static final class Route
+	{
+		private final Handler[] handlers;
+		private final double[] amounts;
+
+		private Route(Handler[] handlers, double[] amounts)
+		{
+			this.handlers = handlers;
+			this.amounts = amounts;
+		}
+	}
+
+	private static final Route EMPTY_ROUTE = new Route(new Handler[0], new double[0]);
+
+	private final List<Handler> handlers = new ArrayList<>();
+	private final Map<Integer, Route> routesByItemId = new HashMap<>();
+	// Set from any thread; the routes are only dropped on the client thread, at the next consumption
+	private volatile boolean stale;
+
+	void register(Handler handler)
+	{
+		handlers.add(handler);
+		invalidate();
+	}
+
+	void clear()
+	{
+		handlers.clear();
+		invalidate();
+	}
+
+	void invalidate()
+	{
+		stale = true;
+	}
+
+	@Override
+	public void onItemConsumed(int itemId, int count)
+	{
+		if (stale)
+		{
+			stale = false;
+			routesByItemId.clear();
+		}
+		Route route = routesByItemId.computeIfAbsent(itemId, this::resolve);
+		for (int i = 0; i < route.handlers.length; i++)
+		{
+			route.handlers[i].apply(route.amounts[i], count);
+		}
+	}
+
+	private Route resolve(int itemId)
+	{
+		List<Handler> matched = new ArrayList<>();
+		List<Double> amounts = new ArrayList<>();
+		for (Handler handler : handlers)
+		{
+			double amount = handler.resolve(itemId);
+			if (amount != 0.0)
+			{
+				matched.add(handler);
+				amounts.add(amount);
+			}
+		}
+
+		if (matched.isEmpty())
+		{
+			return EMPTY_ROUTE;
+		}
+
+		double[] resolved = new double[amounts.size()];
+		for (int i = 0; i < resolved.length; i++)
+		{
+			resolved[i] = amounts.get(i);
+		}
+		return new Route(matched.toArray(new Handler[0]), resolved);
+	}
+}
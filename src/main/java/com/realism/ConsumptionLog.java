@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+class ConsumptionLog
+{
+	private final int capacity;
+	private final int[] ticks;
+	private final int[] itemIds;
+	private final int[] counts;
+	private int head;
+	private int size;
+
+	ConsumptionLog(int capacity)
+	{
+		this.capacity = capacity;
+		this.ticks = new int[capacity];
+		this.itemIds = new int[capacity];
+		this.counts = new int[capacity];
+	}
+
+	void record(int tick, int itemId, int count)
+	{
+		ticks[head] = tick;
+		itemIds[head] = itemId;
+		counts[head] = count;
+		head = head + 1 == capacity ? 0 : head + 1;
+		if (size < capacity)
+		{
+			size++;
+		}
+	}
+
+	void clear()
+	{
+		head = 0;
+		size = 0;
+	}
+
+	// Copies the events oldest first and returns how many were copied
+	int copyTo(int[] tickOut, int[] itemIdOut, int[] countOut)
+	{
+		int start = head - size < 0 ? head - size + capacity : head - size;
+		for (int i = 0; i < size; i++)
+		{
+			int slot = start + i < capacity ? start + i : start + i - capacity;
+			tickOut[i] = ticks[slot];
+			itemIdOut[i] = itemIds[slot];
+			countOut[i] = counts[slot];
+		}
+		return size;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.util.Text;
+
+class DoseFamilyIndex
+{
+	private static final Pattern DOSE_PATTERN = Pattern.compile("^(.+)\\((\\d)\\)$");
+	private static final Pattern HALF_PATTERN = Pattern.compile("^(?:half an? |1/2 )(.+)$");
+	private static final Pattern TWO_THIRDS_PATTERN = Pattern.compile("^2/3 (.+)$");
+	private static final Pattern SLICE_OF_PATTERN = Pattern.compile("^slice of (.+)$");
+	private static final Pattern CAKE_SLICE_PATTERN = Pattern.compile("^(.+) slice$");
+
+	private short[] familyByItemId = new short[0];
+	private byte[] portionsByItemId = new byte[0];
+	private int[] canonicalByFamily = new int[0];
+	private boolean built;
+
+	void clear()
+	{
+		familyByItemId = new short[0];
+		portionsByItemId = new byte[0];
+		canonicalByFamily = new int[0];
+		built = false;
+	}
+
+	boolean isBuilt()
+	{
+		return built;
+	}
+
+	void build(Client client)
+	{
+		int itemCount = client.getItemCount();
+		short[] families = new short[itemCount];
+		byte[] portions = new byte[itemCount];
+		Map<String, Integer> familyIds = new HashMap<>();
+		Map<String, Integer> idsByName = new HashMap<>();
+		int[] canonical = new int[16];
+		int[] maxPortions = new int[16];
+		boolean[] fractional = new boolean[16];
+
+		for (int itemId = 0; itemId < itemCount; itemId++)
+		{
+			ItemComposition comp = client.getItemDefinition(itemId);
+			if (comp == null || comp.getNote() != -1 || comp.getPlaceholderTemplateId() != -1)
+			{
+				continue;
+			}
+			String name = Text.removeTags(comp.getName()).toLowerCase();
+			if (name.isEmpty() || "null".equals(name))
+			{
+				continue;
+			}
+			idsByName.putIfAbsent(name, itemId);
+
+			String base;
+			int count;
+			boolean fraction = true;
+			Matcher m;
+			if ((m = DOSE_PATTERN.matcher(name)).matches())
+			{
+				base = m.group(1).trim();
+				count = m.group(2).charAt(0) - '0';
+				fraction = false;
+			}
+			else if ((m = HALF_PATTERN.matcher(name)).matches() || (m = SLICE_OF_PATTERN.matcher(name)).matches())
+			{
+				base = m.group(1);
+				count = 1;
+			}
+			else if ((m = TWO_THIRDS_PATTERN.matcher(name)).matches())
+			{
+				base = m.group(1);
+				count = 2;
+			}
+			else if ((m = CAKE_SLICE_PATTERN.matcher(name)).matches())
+			{
+				base = m.group(1) + " cake";
+				count = 1;
+			}
+			else
+			{
+				continue;
+			}
+
+			Integer family = familyIds.get(base);
+			if (family == null)
+			{
+				family = familyIds.size() + 1;
+				if (family > Short.MAX_VALUE)
+				{
+					continue;
+				}
+				familyIds.put(base, family);
+				if (family >= canonical.length)
+				{
+					canonical = grow(canonical);
+					maxPortions = grow(maxPortions);
+					fractional = grow(fractional);
+				}
+				maxPortions[family] = -1;
+			}
+
+			families[itemId] = family.shortValue();
+			portions[itemId] = (byte) count;
+			fractional[family] |= fraction;
+			if (count > maxPortions[family])
+			{
+				maxPortions[family] = count;
+				canonical[family] = itemId;
+			}
+		}
+
+		// Pies, pizzas and cakes name their whole form without a portion marker
+		for (Map.Entry<String, Integer> entry : familyIds.entrySet())
+		{
+			int family = entry.getValue();
+			if (!fractional[family])
+			{
+				continue;
+			}
+			Integer wholeId = idsByName.get(entry.getKey());
+			if (wholeId == null || families[wholeId] != 0)
+			{
+				continue;
+			}
+			families[wholeId] = (short) family;
+			portions[wholeId] = (byte) (maxPortions[family] + 1);
+			canonical[family] = wholeId;
+		}
+
+		familyByItemId = families;
+		portionsByItemId = portions;
+		canonicalByFamily = canonical;
+		built = true;
+	}
+
+	int getFamily(int itemId)
+	{
+		return itemId >= 0 && itemId < familyByItemId.length ? familyByItemId[itemId] : 0;
+	}
+
+	int getPortions(int itemId)
+	{
+		return itemId >= 0 && itemId < portionsByItemId.length ? portionsByItemId[itemId] : 0;
+	}
+
+	int getCanonicalItemId(int itemId)
+	{
+		int family = getFamily(itemId);
+		return family == 0 ? itemId : canonicalByFamily[family];
+	}
+
+	private static int[] grow(int[] array)
+	{
+		int[] grown = new int[array.length * 2];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+
+	private static boolean[] grow(boolean[] array)
+	{
+		boolean[] grown = new boolean[array.length * 2];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class DrainRules
+{
+	static final int VAR_BASE = 0;
+	static final int VAR_IN_COMBAT = 1;
+	static final int VAR_RUN_ENERGY = 2;
+	static final int VAR_WEIGHT = 3;
+	static final int VAR_REGION_MOD = 4;
+	static final int VARIABLE_COUNT = 5;
+
+	private static final String[] VARIABLE_NAMES = {"base", "inCombat", "runEnergy", "weight", "regionMod"};
+
+	interface Expression
+	{
+		double evaluate(double[] variables);
+	}
+
+	private static final class Constant implements Expression
+	{
+		private final double value;
+
+		private Constant(double value)
+		{
+			this.value = value;
+		}
+
+		@Override
+		public double evaluate(double[] variables)
+		{
+			return value;
+		}
+	}
+
+	private DrainRules()
+	{
+	}
+
+	// Compiles "meter = expression" lines keyed by lower case meter name, skipping lines that do not parse
+	static Map<String, Expression> compile(String rules)
+	{
+		Map<String, Expression> compiled = new HashMap<>();
+		if (rules == null)
+		{
+			return compiled;
+		}
+
+		for (String line : rules.split("[\\n;]"))
+		{
+			int equals = line.indexOf('=');
+			if (equals <= 0)
+			{
+				continue;
+			}
+			String meter = line.substring(0, equals).trim().toLowerCase();
+			try
+			{
+				compiled.put(meter, compileExpression(line.substring(equals + 1)));
+			}
+			catch (IllegalArgumentException e)
+			{
+				// An invalid rule leaves that meter on its configured rate
+			}
+		}
+		return compiled;
+	}
+
+	static Expression compileExpression(String source)
+	{
+		Parser parser = new Parser(source);
+		Expression expression = parser.parseSum();
+		parser.skipWhitespace();
+		if (parser.pos != source.length())
+		{
+			throw new IllegalArgumentException("Unexpected '" + source.charAt(parser.pos) + "' at " + parser.pos);
+		}
+		return expression;
+	}
+
+	private static final class Parser
+	{
+		private final String source;
+		private int pos;
+
+		private Parser(String source)
+		{
+			this.source = source;
+		}
+
+		private Expression parseSum()
+		{
+			Expression left = parseProduct();
+			while (true)
+			{
+				if (accept('+'))
+				{
+					left = add(left, parseProduct());
+				}
+				else if (accept('-'))
+				{
+					left = subtract(left, parseProduct());
+				}
+				else
+				{
+					return left;
+				}
+			}
+		}
+
+		private Expression parseProduct()
+		{
+			Expression left = parseUnary();
+			while (true)
+			{
+				if (accept('*'))
+				{
+					left = multiply(left, parseUnary());
+				}
+				else if (accept('/'))
+				{
+					left = divide(left, parseUnary());
+				}
+				else
+				{
+					return left;
+				}
+			}
+		}
+
+		private Expression parseUnary()
+		{
+			if (accept('-'))
+			{
+				return negate(parseUnary());
+			}
+			if (accept('+'))
+			{
+				return parseUnary();
+			}
+			return parsePrimary();
+		}
+
+		private Expression parsePrimary()
+		{
+			skipWhitespace();
+			if (accept('('))
+			{
+				Expression inner = parseSum();
+				if (!accept(')'))
+				{
+					throw new IllegalArgumentException("Missing ')' at " + pos);
+				}
+				return inner;
+			}
+
+			int start = pos;
+			if (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.'))
+			{
+				while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.'))
+				{
+					pos++;
+				}
+				try
+				{
+					return new Constant(Double.parseDouble(source.substring(start, pos)));
+				}
+				catch (NumberFormatException e)
+				{
+					throw new IllegalArgumentException("Bad number at " + start, e);
+				}
+			}
+
+			while (pos < source.length() && Character.isLetter(source.charAt(pos)))
+			{
+				pos++;
+			}
+			String name = source.substring(start, pos);
+			for (int i = 0; i < VARIABLE_NAMES.length; i++)
+			{
+				if (VARIABLE_NAMES[i].equalsIgnoreCase(name))
+				{
+					final int index = i;
+					return variables -> variables[index];
+				}
+			}
+			throw new IllegalArgumentException("Unknown variable '" + name + "' at " + start);
+		}
+
+		private boolean accept(char c)
+		{
+			skipWhitespace();
+			if (pos < source.length() && source.charAt(pos) == c)
+			{
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		private void skipWhitespace()
+		{
+			while (pos < source.length() && Character.isWhitespace(source.charAt(pos)))
+			{
+				pos++;
+			}
+		}
+	}
+
+	private static Expression add(Expression left, Expression right)
+	{
+		if (left instanceof Constant && right instanceof Constant)
+		{
+			return new Constant(((Constant) left).value + ((Constant) right).value);
+		}
+		if (isConstant(right, 0.0))
+		{
+			return left;
+		}
+		if (isConstant(left, 0.0))
+		{
+			return right;
+		}
+		return variables -> left.evaluate(variables) + right.evaluate(variables);
+	}
+
+	private static Expression subtract(Expression left, Expression right)
+	{
+		if (left instanceof Constant && right instanceof Constant)
+		{
+			return new Constant(((Constant) left).value - ((Constant) right).value);
+		}
+		if (isConstant(right, 0.0))
+		{
+			return left;
+		}
+		return variables -> left.evaluate(variables) - right.evaluate(variables);
+	}
+
+	private static Expression multiply(Expression left, Expression right)
+	{
+		if (left instanceof Constant && right instanceof Constant)
+		{
+			return new Constant(((Constant) left).value * ((Constant) right).value);
+		}
+		if (isConstant(right, 1.0))
+		{
+			return left;
+		}
+		if (isConstant(left, 1.0))
+		{
+			return right;
+		}
+		return variables -> left.evaluate(variables) * right.evaluate(variables);
+	}
+
+	private static Expression divide(Expression left, Expression right)
+	{
+		if (left instanceof Constant && right instanceof Constant)
+		{
+			return new Constant(((Constant) left).value / ((Constant) right).value);
+		}
+		if (isConstant(right, 1.0))
+		{
+			return left;
+		}
+		return variables -> left.evaluate(variables) / right.evaluate(variables);
+	}
+
+	private static Expression negate(Expression operand)
+	{
+		if (operand instanceof Constant)
+		{
+			return new Constant(-((Constant) operand).value);
+		}
+		return variables -> -operand.evaluate(variables);
+	}
+
+	private static boolean isConstant(Expression expression, double value)
+	{
+		return expression instanceof Constant && ((Constant) expression).value == value;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.widgets.WidgetItem;
+import net.runelite.client.ui.overlay.WidgetItemOverlay;
+
+@Singleton
+public class DurabilityItemOverlay extends WidgetItemOverlay
+{
+	private static final int BAR_WIDTH = 32;
+	private static final int BAR_HEIGHT = 3;
+	private static final int SLOT_WIDTH = 36;
+	private static final int SLOT_HEIGHT = 32;
+	private static final Color BAR_BACKGROUND = new Color(0, 0, 0, 160);
+	private static final Color BROKEN_TINT = new Color(255, 0, 0, 70);
+
+	// One bar per whole percent and a slot tint for broken items, so each item costs at most two blits
+	private static final BufferedImage[] BARS = new BufferedImage[101];
+	private static final BufferedImage BROKEN_OVERLAY = new BufferedImage(SLOT_WIDTH, SLOT_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+
+	static
+	{
+		for (int percent = 0; percent <= 100; percent++)
+		{
+			BufferedImage bar = new BufferedImage(BAR_WIDTH, BAR_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = bar.createGraphics();
+			g.setColor(BAR_BACKGROUND);
+			g.fillRect(0, 0, BAR_WIDTH, BAR_HEIGHT);
+			// Hue runs from red at 0% to green at 100%
+			g.setColor(Color.getHSBColor(percent / 300f, 1f, 1f));
+			g.fillRect(0, 0, Math.round(BAR_WIDTH * percent / 100f), BAR_HEIGHT);
+			g.dispose();
+			BARS[percent] = bar;
+		}
+
+		Graphics2D g = BROKEN_OVERLAY.createGraphics();
+		g.setColor(BROKEN_TINT);
+		g.fillRect(0, 0, SLOT_WIDTH, SLOT_HEIGHT);
+		g.dispose();
+	}
+
+	private final RealismPlugin plugin;
+
+	@Inject
+	public DurabilityItemOverlay(RealismPlugin plugin)
+	{
+		this.plugin = plugin;
+		showOnInventory();
+		showOnEquipment();
+	}
+
+	@Override
+	public void renderItemOverlay(Graphics2D graphics, int itemId, WidgetItem widgetItem)
+	{
+		if (!plugin.isShowDurabilityBars())
+		{
+			return;
+		}
+
+		DurabilityTracker tracker = plugin.getDurabilityTracker();
+		int units = tracker.getDurabilityUnits(itemId);
+		boolean broken = tracker.isBroken(itemId);
+		if (units == DurabilityTracker.UNTRACKED && !broken)
+		{
+			return;
+		}
+
+		Rectangle bounds = widgetItem.getCanvasBounds();
+		if (broken)
+		{
+			graphics.drawImage(BROKEN_OVERLAY, bounds.x, bounds.y, null);
+		}
+		BufferedImage bar = BARS[units == DurabilityTracker.UNTRACKED ? 0 : units / FixedPoint.UNITS_PER_PERCENT];
+		graphics.drawImage(bar, bounds.x + (bounds.width - BAR_WIDTH) / 2, bounds.y + bounds.height - BAR_HEIGHT, null);
+	}
+}
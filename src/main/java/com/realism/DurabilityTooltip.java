@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.function.IntFunction;
+
+class DurabilityTooltip
+{
+	private final DurabilityTracker tracker;
+	private final IntFunction<String> itemNames;
+	private int builtRevision;
+	private String builtHeader;
+	private String text;
+
+	DurabilityTooltip(DurabilityTracker tracker, IntFunction<String> itemNames)
+	{
+		this.tracker = tracker;
+		this.itemNames = itemNames;
+	}
+
+	// Only built while the orb is hovered, then reused until the header or a listed value changes
+	String get(String header)
+	{
+		if (text != null && builtRevision == tracker.getRevision() && header.equals(builtHeader))
+		{
+			return text;
+		}
+
+		int[] itemIds = new int[tracker.size()];
+		int[] units = new int[itemIds.length];
+		int count = tracker.copyTo(itemIds, units);
+		sortByUnits(itemIds, units, count);
+
+		StringBuilder builder = new StringBuilder(header);
+		for (int i = 0; i < count; i++)
+		{
+			builder.append("</br>")
+				.append(itemNames.apply(itemIds[i]))
+				.append(": ")
+				.append(units[i] / FixedPoint.UNITS_PER_PERCENT)
+				.append('%');
+		}
+
+		builtRevision = tracker.getRevision();
+		builtHeader = header;
+		text = builder.toString();
+		return text;
+	}
+
+	void invalidate()
+	{
+		text = null;
+	}
+
+	// Equipment is at most a dozen or so items, so an insertion sort keeps the parallel arrays in step cheaply
+	private static void sortByUnits(int[] itemIds, int[] units, int count)
+	{
+		for (int i = 1; i < count; i++)
+		{
+			int itemId = itemIds[i];
+			int value = units[i];
+			int j = i - 1;
+			while (j >= 0 && units[j] > value)
+			{
+				itemIds[j + 1] = itemIds[j];
+				units[j + 1] = units[j];
+				j--;
+			}
+			itemIds[j + 1] = itemId;
+			units[j + 1] = value;
+		}
+	}
+}
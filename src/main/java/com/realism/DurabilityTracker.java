@@ -5,34 +5,67 @@
  */
 package com.realism;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import net.runelite.api.ItemContainer;
 
 class DurabilityTracker
 {
-	private final Map<Integer, Double> durabilityByItemId = new HashMap<>();
-	private boolean lowSent;
-	private boolean critSent;
+	static final int UNTRACKED = -1;
+
+	private final IntIntMap durabilityByItemId = new IntIntMap(16);
+	private final BitSet brokenItems = new BitSet();
+	private int[] removed = new int[16];
+	private long rateNumerator;
+	private long rateDenominator = 1;
+	private final long[] rateRemainder = new long[1];
+	private int revision;
 
 	void reset()
 	{
 		durabilityByItemId.clear();
-		lowSent = false;
-		critSent = false;
+		brokenItems.clear();
+		rateRemainder[0] = 0;
+		revision++;
 	}
 
-	void drain(double perTickLoss)
+	void setDrainTicks(int ticksToBroken)
 	{
-		if (perTickLoss <= 0.0)
+		long numerator = ticksToBroken > 0 ? FixedPoint.FULL : 0;
+		long denominator = Math.max(1, ticksToBroken);
+		if (numerator != rateNumerator || denominator != rateDenominator)
+		{
+			rateNumerator = numerator;
+			rateDenominator = denominator;
+			rateRemainder[0] = 0;
+		}
+	}
+
+	void drain()
+	{
+		long delta = FixedPoint.carry(rateRemainder, 0, rateNumerator, rateDenominator);
+		if (delta <= 0)
 		{
 			return;
 		}
-		for (Map.Entry<Integer, Double> entry : durabilityByItemId.entrySet())
+		for (int slot = 0; slot < durabilityByItemId.capacity(); slot++)
 		{
-			double newValue = entry.getValue() - perTickLoss;
-			entry.setValue(Math.max(0.0, newValue));
+			int itemId = durabilityByItemId.keyAt(slot);
+			if (itemId == 0)
+			{
+				continue;
+			}
+			int previous = durabilityByItemId.valueAt(slot);
+			int value = FixedPoint.clamp(previous - delta);
+			if (value / FixedPoint.UNITS_PER_PERCENT != previous / FixedPoint.UNITS_PER_PERCENT)
+			{
+				revision++;
+			}
+			durabilityByItemId.setValueAt(slot, value);
+			if (value == 0)
+			{
+				brokenItems.set(itemId);
+			}
 		}
 	}
 
@@ -43,85 +76,124 @@ class DurabilityTracker
 			return;
 		}
 
-		Map<Integer, Integer> equipped = new HashMap<>();
-		for (int slot = 0; slot < container.size(); slot++)
+		int removedCount = 0;
+		for (int slot = 0; slot < durabilityByItemId.capacity(); slot++)
 		{
-			int itemId = container.getItemId(slot);
-			int qty = container.getQuantity(slot);
-			if (itemId > 0 && qty > 0)
+			int itemId = durabilityByItemId.keyAt(slot);
+			if (itemId != 0 && !isEquipped(container, itemId))
 			{
-				equipped.merge(itemId, qty, Integer::sum);
+				if (removedCount == removed.length)
+				{
+					removed = Arrays.copyOf(removed, removedCount * 2);
+				}
+				removed[removedCount++] = itemId;
 			}
 		}
+		for (int i = 0; i < removedCount; i++)
+		{
+			durabilityByItemId.remove(removed[i]);
+		}
 
-		for (Iterator<Integer> it = durabilityByItemId.keySet().iterator(); it.hasNext(); )
+		for (int slot = 0; slot < container.size(); slot++)
 		{
-			Integer itemId = it.next();
-			if (!equipped.containsKey(itemId))
+			int itemId = container.getItemId(slot);
+			if (itemId > 0 && container.getQuantity(slot) > 0 && !durabilityByItemId.containsKey(itemId))
 			{
-				it.remove();
+				// Broken items stay broken when unequipped and worn again
+				durabilityByItemId.put(itemId, brokenItems.get(itemId) ? 0 : FixedPoint.FULL);
 			}
 		}
+		revision++;
+	}
+
+	// Changes whenever the equipped set or any item's whole-percent durability changes
+	int getRevision()
+	{
+		return revision;
+	}
 
-		for (Integer itemId : equipped.keySet())
+	// Copies the tracked items and their durability units, returning how many were copied
+	int copyTo(int[] itemIds, int[] units)
+	{
+		int count = 0;
+		for (int slot = 0; slot < durabilityByItemId.capacity(); slot++)
 		{
-			durabilityByItemId.putIfAbsent(itemId, 100.0);
+			int itemId = durabilityByItemId.keyAt(slot);
+			if (itemId != 0)
+			{
+				itemIds[count] = itemId;
+				units[count] = durabilityByItemId.valueAt(slot);
+				count++;
+			}
 		}
+		return count;
 	}
 
-	Double getDurability(int itemId)
+	boolean isBroken(int itemId)
 	{
-		return durabilityByItemId.get(itemId);
+		return itemId > 0 && brokenItems.get(itemId);
 	}
 
-	double getAverageDurability()
+	// Durability of an equipped item in units, or UNTRACKED when it is not worn
+	int getDurabilityUnits(int itemId)
 	{
-		if (durabilityByItemId.isEmpty())
-		{
-			return 100.0;
-		}
-		double total = 0.0;
-		for (double value : durabilityByItemId.values())
-		{
-			total += value;
-		}
-		return total / durabilityByItemId.size();
+		return durabilityByItemId.get(itemId, UNTRACKED);
 	}
 
-	double getMinimumDurability()
+	int size()
 	{
-		if (durabilityByItemId.isEmpty())
-		{
-			return 100.0;
-		}
-		double min = 100.0;
-		for (double value : durabilityByItemId.values())
-		{
-			if (value < min)
-			{
-				min = value;
-			}
-		}
-		return min;
+		return durabilityByItemId.size();
 	}
 
-	boolean isLowSent()
+	long getRateNumerator()
 	{
-		return lowSent;
+		return rateNumerator;
 	}
 
-	void setLowSent(boolean lowSent)
+	long getRateDenominator()
 	{
-		this.lowSent = lowSent;
+		return rateDenominator;
 	}
 
-	boolean isCritSent()
+	int getAverageUnits()
 	{
-		return critSent;
+		if (durabilityByItemId.size() == 0)
+		{
+			return FixedPoint.FULL;
+		}
+		long total = 0;
+		for (int slot = 0; slot < durabilityByItemId.capacity(); slot++)
+		{
+			if (durabilityByItemId.keyAt(slot) != 0)
+			{
+				total += durabilityByItemId.valueAt(slot);
+			}
+		}
+		return (int) (total / durabilityByItemId.size());
 	}
 
-	void setCritSent(boolean critSent)
+	int getMinimumUnits()
 	{
-		this.critSent = critSent;
+		int min = FixedPoint.FULL;
+		for (int slot = 0; slot < durabilityByItemId.capacity(); slot++)
+		{
+			if (durabilityByItemId.keyAt(slot) != 0 && durabilityByItemId.valueAt(slot) < min)
+			{
+				min = durabilityByItemId.valueAt(slot);
+			}
+		}
+		return min;
+	}
+
+	private static boolean isEquipped(ItemContainer container, int itemId)
+	{
+		for (int slot = 0; slot < container.size(); slot++)
+		{
+			if (container.getItemId(slot) == itemId && container.getQuantity(slot) > 0)
+			{
+				return true;
+			}
+		}
+		return false;
 	}
 }
\ No newline at end of file
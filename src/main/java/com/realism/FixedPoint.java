@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+final class FixedPoint
+{
+	static final int UNITS_PER_PERCENT = 1_000_000;
+	static final int FULL = 100 * UNITS_PER_PERCENT;
+
+	private FixedPoint()
+	{
+	}
+
+	static int toUnits(double percent)
+	{
+		return (int) Math.round(percent * UNITS_PER_PERCENT);
+	}
+
+	static double toPercent(long units)
+	{
+		return units / (double) UNITS_PER_PERCENT;
+	}
+
+	static int clamp(long units)
+	{
+		return (int) Math.max(0L, Math.min(FULL, units));
+	}
+
+	// Units to drain this tick for a numerator/denominator rate, carrying the division remainder in
+	// remainders[index] so the rate drains exactly numerator units over denominator ticks
+	static long carry(long[] remainders, int index, long numerator, long denominator)
+	{
+		long accumulated = remainders[index] + numerator;
+		long delta = accumulated / denominator;
+		remainders[index] = accumulated - delta * denominator;
+		return delta;
+	}
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class HistoryExporter
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// Worst case bytes for one CSV row or binary record, the buffer is flushed before it gets this full
+	private static final int RECORD_RESERVE = 256;
+	private static final int BINARY_MAGIC = 0x524C5348;
+	private static final short BINARY_VERSION = 1;
+	private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final String[] meterNames;
+	private final float[] samples;
+	private final int[] sampleTicks;
+	private final int[] eventTicks;
+	private final int[] eventItemIds;
+	private final int[] eventCounts;
+	private int sampleCount;
+	private int eventCount;
+
+	HistoryExporter(int meterCount, int historyCapacity, int logCapacity)
+	{
+		meterNames = new String[meterCount];
+		samples = new float[meterCount * historyCapacity];
+		sampleTicks = new int[historyCapacity];
+		eventTicks = new int[logCapacity];
+		eventItemIds = new int[logCapacity];
+		eventCounts = new int[logCapacity];
+	}
+
+	// Only one export runs at a time since the snapshot arrays and buffer are reused
+	boolean tryBegin()
+	{
+		return running.compareAndSet(false, true);
+	}
+
+	// Ends the export begun by tryBegin, also used when the write task could not be scheduled
+	void end()
+	{
+		running.set(false);
+	}
+
+	// Called on the client thread; the copies are fixed size so the export never races the live buffers
+	void snapshot(MeterRegistry meters, MeterHistory history, ConsumptionLog log)
+	{
+		for (int meter = 0; meter < meterNames.length; meter++)
+		{
+			meterNames[meter] = meters.getName(meter);
+		}
+		sampleCount = history.copyTo(samples, sampleTicks);
+		eventCount = log.copyTo(eventTicks, eventItemIds, eventCounts);
+	}
+
+	// Called on a background thread after snapshot, always ending the export begun by tryBegin
+	Path write(Path directory, boolean binary) throws IOException
+	{
+		try
+		{
+			Files.createDirectories(directory);
+			Path file = directory.resolve("history-" + LocalDateTime.now().format(FILE_TIMESTAMP) + (binary ? ".bin" : ".csv"));
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+			{
+				buffer.clear();
+				if (binary)
+				{
+					writeBinary(channel);
+				}
+				else
+				{
+					writeCsv(channel);
+				}
+				flush(channel);
+			}
+			return file;
+		}
+		finally
+		{
+			end();
+		}
+	}
+
+	// One header covers both record types: samples leave itemId and count empty, consumes leave the meters empty
+	private void writeCsv(FileChannel channel) throws IOException
+	{
+		putAscii("type,tick");
+		for (String name : meterNames)
+		{
+			buffer.put((byte) ',');
+			putField(name);
+		}
+		putAscii(",itemId,count\n");
+
+		int meterCount = meterNames.length;
+		for (int i = 0; i < sampleCount; i++)
+		{
+			ensureRoom(channel);
+			putAscii("sample,");
+			putInt(sampleTicks[i]);
+			for (int meter = 0; meter < meterCount; meter++)
+			{
+				buffer.put((byte) ',');
+				putHundredths(samples[i * meterCount + meter]);
+			}
+			putAscii(",,\n");
+		}
+
+		for (int i = 0; i < eventCount; i++)
+		{
+			ensureRoom(channel);
+			putAscii("consume,");
+			putInt(eventTicks[i]);
+			for (int meter = 0; meter < meterCount; meter++)
+			{
+				buffer.put((byte) ',');
+			}
+			buffer.put((byte) ',');
+			putInt(eventItemIds[i]);
+			buffer.put((byte) ',');
+			putInt(eventCounts[i]);
+			buffer.put((byte) '\n');
+		}
+	}
+
+	// Big-endian: magic, version, meter count, length-prefixed UTF-8 names, then counted sample and event records
+	private void writeBinary(FileChannel channel) throws IOException
+	{
+		buffer.putInt(BINARY_MAGIC);
+		buffer.putShort(BINARY_VERSION);
+		buffer.put((byte) meterNames.length);
+		for (String name : meterNames)
+		{
+			ensureRoom(channel);
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			int length = Math.min(bytes.length, RECORD_RESERVE / 2);
+			buffer.putShort((short) length);
+			buffer.put(bytes, 0, length);
+		}
+
+		int meterCount = meterNames.length;
+		buffer.putInt(sampleCount);
+		for (int i = 0; i < sampleCount; i++)
+		{
+			ensureRoom(channel);
+			buffer.putInt(sampleTicks[i]);
+			for (int meter = 0; meter < meterCount; meter++)
+			{
+				buffer.putFloat(samples[i * meterCount + meter]);
+			}
+		}
+
+		ensureRoom(channel);
+		buffer.putInt(eventCount);
+		for (int i = 0; i < eventCount; i++)
+		{
+			ensureRoom(channel);
+			buffer.putInt(eventTicks[i]);
+			buffer.putInt(eventItemIds[i]);
+			buffer.putInt(eventCounts[i]);
+		}
+	}
+
+	private void ensureRoom(FileChannel channel) throws IOException
+	{
+		if (buffer.remaining() < RECORD_RESERVE)
+		{
+			flush(channel);
+		}
+	}
+
+	private void flush(FileChannel channel) throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void putAscii(String text)
+	{
+		for (int i = 0; i < text.length(); i++)
+		{
+			buffer.put((byte) text.charAt(i));
+		}
+	}
+
+	// Meter names are user facing, so anything that would break the CSV row is replaced
+	private void putField(String text)
+	{
+		int length = Math.min(text.length(), RECORD_RESERVE / 2);
+		for (int i = 0; i < length; i++)
+		{
+			char c = text.charAt(i);
+			buffer.put(c >= 0x20 && c < 0x80 && c != ',' && c != '"' ? (byte) c : (byte) '_');
+		}
+	}
+
+	private void putInt(int value)
+	{
+		if (value < 0)
+		{
+			buffer.put((byte) '-');
+			value = -value;
+		}
+		int divisor = 1;
+		while (value / divisor >= 10)
+		{
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10)
+		{
+			buffer.put((byte) ('0' + value / divisor % 10));
+		}
+	}
+
+	private void putHundredths(float value)
+	{
+		int hundredths = Math.round(value * 100f);
+		putInt(hundredths / 100);
+		buffer.put((byte) '.');
+		int fraction = hundredths % 100;
+		buffer.put((byte) ('0' + fraction / 10));
+		buffer.put((byte) ('0' + fraction % 10));
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Arrays;
+
+// Open-addressing int to int map for item IDs, which are always positive so 0 marks an empty slot
+final class IntIntMap
+{
+	private static final int EMPTY = 0;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	IntIntMap(int expectedSize)
+	{
+		int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2) - 1) << 1;
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	int get(int key, int missing)
+	{
+		if (key == EMPTY)
+		{
+			return missing;
+		}
+		for (int slot = slotOf(key); ; slot = (slot + 1) & mask)
+		{
+			int existing = keys[slot];
+			if (existing == key)
+			{
+				return values[slot];
+			}
+			if (existing == EMPTY)
+			{
+				return missing;
+			}
+		}
+	}
+
+	boolean containsKey(int key)
+	{
+		return key != EMPTY && keys[find(key)] == key;
+	}
+
+	void put(int key, int value)
+	{
+		int slot = find(key);
+		if (keys[slot] == EMPTY)
+		{
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+		if (size * 2 > keys.length)
+		{
+			rehash(keys.length * 2);
+		}
+	}
+
+	void remove(int key)
+	{
+		int slot = find(key);
+		if (keys[slot] != key)
+		{
+			return;
+		}
+		keys[slot] = EMPTY;
+		size--;
+
+		// Shift later entries of the probe chain back so lookups never stop at the hole
+		for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask)
+		{
+			int home = slotOf(keys[next]);
+			if (((next - home) & mask) >= ((next - slot) & mask))
+			{
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				keys[next] = EMPTY;
+				slot = next;
+			}
+		}
+	}
+
+	void clear()
+	{
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	// Slot access lets callers walk the entries without boxing; empty slots report key 0
+	int capacity()
+	{
+		return keys.length;
+	}
+
+	int keyAt(int slot)
+	{
+		return keys[slot];
+	}
+
+	int valueAt(int slot)
+	{
+		return values[slot];
+	}
+
+	void setValueAt(int slot, int value)
+	{
+		values[slot] = value;
+	}
+
+	private int find(int key)
+	{
+		int slot = slotOf(key);
+		while (keys[slot] != EMPTY && keys[slot] != key)
+		{
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int slotOf(int key)
+	{
+		int hash = key * 0x9E3779B9;
+		return (hash ^ hash >>> 16) & mask;
+	}
+
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldKeys[i] != EMPTY)
+			{
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.api.ItemContainer;
+
+class ItemSnapshot
+{
+	interface QuantityListener
+	{
+		void onQuantityChanged(int itemId, int delta);
+	}
+
+	private static final QuantityListener NO_LISTENER = (itemId, delta) ->
+	{
+	};
+
+	private Map<Integer, Integer> quantities = new HashMap<>();
+	private Map<Integer, Integer> scratch = new HashMap<>();
+	private QuantityListener listener = NO_LISTENER;
+
+	void setListener(QuantityListener listener)
+	{
+		this.listener = listener != null ? listener : NO_LISTENER;
+	}
+
+	int getQuantity(int itemId)
+	{
+		return quantities.getOrDefault(itemId, 0);
+	}
+
+	// Collects the container's totals per item without replacing the snapshot yet
+	Map<Integer, Integer> read(ItemContainer container)
+	{
+		scratch.clear();
+		if (container == null)
+		{
+			return scratch;
+		}
+		for (int slot = 0; slot < container.size(); slot++)
+		{
+			int itemId = container.getItemId(slot);
+			int qty = container.getQuantity(slot);
+			if (itemId > 0 && qty > 0)
+			{
+				scratch.merge(itemId, qty, Integer::sum);
+			}
+		}
+		return scratch;
+	}
+
+	// Replaces the snapshot with the last read, reporting each item whose quantity changed
+	void commit()
+	{
+		for (Map.Entry<Integer, Integer> entry : quantities.entrySet())
+		{
+			int newQty = scratch.getOrDefault(entry.getKey(), 0);
+			if (newQty != entry.getValue())
+			{
+				listener.onQuantityChanged(entry.getKey(), newQty - entry.getValue());
+			}
+		}
+		for (Map.Entry<Integer, Integer> entry : scratch.entrySet())
+		{
+			if (!quantities.containsKey(entry.getKey()))
+			{
+				listener.onQuantityChanged(entry.getKey(), entry.getValue());
+			}
+		}
+
+		Map<Integer, Integer> previous = quantities;
+		quantities = scratch;
+		scratch = previous;
+		scratch.clear();
+	}
+
+	void update(ItemContainer container)
+	{
+		read(container);
+		commit();
+	}
+
+	void clear()
+	{
+		scratch.clear();
+		commit();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Arrays;
+
+class MeterForecast
+{
+	static final int NOT_DRAINING = -1;
+
+	private static final int TICKS_PER_MINUTE = 100;
+	private static final int MAX_MINUTES = 99 * 60;
+
+	private final int[] levelPercents;
+	private final int[] levelMinutes;
+	private final int[] emptyMinutes;
+	private final int[] supplyMinutes;
+	private final String[] tooltips;
+	private final String[] labels;
+
+	MeterForecast(int meterCount)
+	{
+		levelPercents = new int[meterCount];
+		levelMinutes = new int[meterCount];
+		emptyMinutes = new int[meterCount];
+		supplyMinutes = new int[meterCount];
+		tooltips = new String[meterCount];
+		labels = new String[meterCount];
+		reset();
+	}
+
+	void reset()
+	{
+		// Impossible minute values force every meter's text to be rebuilt on the next update
+		Arrays.fill(levelMinutes, Integer.MIN_VALUE);
+		Arrays.fill(emptyMinutes, Integer.MIN_VALUE);
+		Arrays.fill(supplyMinutes, Integer.MIN_VALUE);
+		Arrays.fill(tooltips, "");
+		Arrays.fill(labels, "");
+	}
+
+	// Called once per tick; strings are only rebuilt when a whole minute value changes
+	void update(int meter, String name, int units, int levelUnits, long supplyUnits, long rateNumerator, long rateDenominator)
+	{
+		int toLevel = levelUnits > 0 ? minutesUntil(units - levelUnits, rateNumerator, rateDenominator) : NOT_DRAINING;
+		int toEmpty = minutesUntil(units, rateNumerator, rateDenominator);
+		int supplies = supplyUnits > 0 ? minutesUntil(supplyUnits, rateNumerator, rateDenominator) : NOT_DRAINING;
+		int levelPercent = levelUnits / FixedPoint.UNITS_PER_PERCENT;
+		if (toLevel == levelMinutes[meter] && toEmpty == emptyMinutes[meter] && supplies == supplyMinutes[meter]
+			&& levelPercent == levelPercents[meter])
+		{
+			return;
+		}
+		levelMinutes[meter] = toLevel;
+		emptyMinutes[meter] = toEmpty;
+		supplyMinutes[meter] = supplies;
+		levelPercents[meter] = levelPercent;
+
+		if (toEmpty == NOT_DRAINING)
+		{
+			tooltips[meter] = name + "</br>Not draining";
+			labels[meter] = "";
+			return;
+		}
+
+		StringBuilder tooltip = new StringBuilder(name);
+		if (toLevel != NOT_DRAINING)
+		{
+			tooltip.append("</br>Below ").append(levelPercent).append("% in ").append(formatMinutes(toLevel));
+		}
+		tooltip.append("</br>Empty in ").append(formatMinutes(toEmpty));
+		if (supplies != NOT_DRAINING)
+		{
+			tooltip.append("</br>Supplies last ~").append(formatMinutes(supplies));
+		}
+		tooltips[meter] = tooltip.toString();
+		labels[meter] = formatMinutes(toEmpty);
+	}
+
+	String getTooltip(int meter)
+	{
+		return tooltips[meter];
+	}
+
+	// Short minutes-until-empty text for under the orb, empty while the meter is not draining
+	String getLabel(int meter)
+	{
+		return labels[meter];
+	}
+
+	private static int minutesUntil(long units, long rateNumerator, long rateDenominator)
+	{
+		if (rateNumerator <= 0)
+		{
+			return NOT_DRAINING;
+		}
+		if (units <= 0)
+		{
+			return 0;
+		}
+		long ticks = (units * rateDenominator + rateNumerator - 1) / rateNumerator;
+		return (int) Math.min(MAX_MINUTES, (ticks + TICKS_PER_MINUTE - 1) / TICKS_PER_MINUTE);
+	}
+
+	private static String formatMinutes(int minutes)
+	{
+		if (minutes < 60)
+		{
+			return minutes + "m";
+		}
+		int remainder = minutes % 60;
+		return minutes / 60 + "h" + (remainder < 10 ? "0" : "") + remainder + "m";
+	}
+}
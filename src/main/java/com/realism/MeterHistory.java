@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Arrays;
+
+class MeterHistory
+{
+	private final int meterCount;
+	private final int capacity;
+	// One row of meter percentages per sample, so memory is fixed at meterCount * capacity floats
+	private final float[] samples;
+	private final int[] sampleTicks;
+	private int head;
+	private int size;
+	private int revision;
+
+	MeterHistory(int meterCount, int capacity)
+	{
+		this.meterCount = meterCount;
+		this.capacity = capacity;
+		this.samples = new float[meterCount * capacity];
+		this.sampleTicks = new int[capacity];
+	}
+
+	void record(MeterRegistry meters, int tick)
+	{
+		sampleTicks[head] = tick;
+		int offset = head * meterCount;
+		for (int meter = 0; meter < meterCount; meter++)
+		{
+			samples[offset + meter] = (float) meters.getValue(meter);
+		}
+		head = head + 1 == capacity ? 0 : head + 1;
+		if (size < capacity)
+		{
+			size++;
+		}
+		revision++;
+	}
+
+	void clear()
+	{
+		Arrays.fill(samples, 0f);
+		head = 0;
+		size = 0;
+		revision++;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	// Changes whenever a sample is added, so renderers can tell when a cached image is stale
+	int getRevision()
+	{
+		return revision;
+	}
+
+	// Sample 0 is the oldest still held
+	float get(int meter, int index)
+	{
+		int slot = head - size + index;
+		if (slot < 0)
+		{
+			slot += capacity;
+		}
+		return samples[slot * meterCount + meter];
+	}
+
+	// Copies the samples oldest first, one row of meterCount values each, and returns how many rows were copied
+	int copyTo(float[] sampleOut, int[] tickOut)
+	{
+		int start = head - size < 0 ? head - size + capacity : head - size;
+		for (int i = 0; i < size; i++)
+		{
+			int slot = start + i < capacity ? start + i : start + i - capacity;
+			tickOut[i] = sampleTicks[slot];
+			System.arraycopy(samples, slot * meterCount, sampleOut, i * meterCount, meterCount);
+		}
+		return size;
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+class MeterRegistry
+{
+	// Drain modifiers are in basis points, so 10000 is the configured rate
+	static final int DRAIN_MODIFIER_SCALE = 10_000;
+	static final int FLAG_VISIBLE = 1;
+
+	private static final int FILL_ALPHA = 180;
+
+	private int count;
+	private String[] names = new String[4];
+	private int[] values = new int[4];
+	private long[] rateNumerators = new long[4];
+	private long[] rateDenominators = new long[4];
+	private long[] rateRemainders = new long[4];
+	private int[] drainTicks = new int[4];
+	private int[] drainModifiers = new int[4];
+	private int[] flags = new int[4];
+	private ThresholdLevels[] thresholds = new ThresholdLevels[4];
+	private int[] alertedLevels = new int[4];
+	private Color[] colours = new Color[4];
+	private Color[][] fillTables = new Color[4][];
+	private int[] iconItemIds = new int[4];
+
+	int register(String name)
+	{
+		if (count == names.length)
+		{
+			int capacity = count * 2;
+			names = Arrays.copyOf(names, capacity);
+			values = Arrays.copyOf(values, capacity);
+			rateNumerators = Arrays.copyOf(rateNumerators, capacity);
+			rateDenominators = Arrays.copyOf(rateDenominators, capacity);
+			rateRemainders = Arrays.copyOf(rateRemainders, capacity);
+			drainTicks = Arrays.copyOf(drainTicks, capacity);
+			drainModifiers = Arrays.copyOf(drainModifiers, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+			thresholds = Arrays.copyOf(thresholds, capacity);
+			alertedLevels = Arrays.copyOf(alertedLevels, capacity);
+			colours = Arrays.copyOf(colours, capacity);
+			fillTables = Arrays.copyOf(fillTables, capacity);
+			iconItemIds = Arrays.copyOf(iconItemIds, capacity);
+		}
+		int meter = count++;
+		names[meter] = name;
+		values[meter] = FixedPoint.FULL;
+		rateDenominators[meter] = 1;
+		drainModifiers[meter] = DRAIN_MODIFIER_SCALE;
+		setColours(meter, Color.WHITE, Color.WHITE, Color.WHITE, 0);
+		return meter;
+	}
+
+	int size()
+	{
+		return count;
+	}
+
+	void reset()
+	{
+		for (int i = 0; i < count; i++)
+		{
+			values[i] = FixedPoint.FULL;
+			rateRemainders[i] = 0;
+			alertedLevels[i] = thresholds[i] != null ? thresholds[i].size() : 0;
+		}
+	}
+
+	void drainAll()
+	{
+		for (int i = 0; i < count; i++)
+		{
+			long value = values[i] - FixedPoint.carry(rateRemainders, i, rateNumerators[i], rateDenominators[i]);
+			values[i] = value > 0 ? (int) value : 0;
+		}
+	}
+
+	void drain(int meter, double percent)
+	{
+		if (percent <= 0.0)
+		{
+			return;
+		}
+		values[meter] = FixedPoint.clamp((long) values[meter] - FixedPoint.toUnits(percent));
+	}
+
+	void restore(int meter, double percent)
+	{
+		if (percent <= 0.0)
+		{
+			return;
+		}
+		values[meter] = FixedPoint.clamp((long) values[meter] + FixedPoint.toUnits(percent));
+	}
+
+	String getName(int meter)
+	{
+		return names[meter];
+	}
+
+	double getValue(int meter)
+	{
+		return FixedPoint.toPercent(values[meter]);
+	}
+
+	int getUnits(int meter)
+	{
+		return values[meter];
+	}
+
+	void setUnits(int meter, int units)
+	{
+		values[meter] = FixedPoint.clamp(units);
+	}
+
+	void setDrainTicks(int meter, int ticksToEmpty)
+	{
+		drainTicks[meter] = ticksToEmpty;
+		updateDrainRate(meter);
+	}
+
+	void setDrainModifier(int meter, int modifier)
+	{
+		drainModifiers[meter] = modifier;
+		updateDrainRate(meter);
+	}
+
+	private void updateDrainRate(int meter)
+	{
+		if (drainTicks[meter] <= 0 || drainModifiers[meter] <= 0)
+		{
+			setRate(meter, 0, 1);
+			return;
+		}
+		setRate(meter, (long) FixedPoint.FULL * drainModifiers[meter], (long) drainTicks[meter] * DRAIN_MODIFIER_SCALE);
+	}
+
+	// Per-tick loss is numerator / denominator units, kept as a fraction so no rounding accumulates
+	void setRate(int meter, long numerator, long denominator)
+	{
+		if (rateNumerators[meter] == numerator && rateDenominators[meter] == denominator)
+		{
+			return;
+		}
+		rateNumerators[meter] = Math.max(0L, numerator);
+		rateDenominators[meter] = Math.max(1L, denominator);
+		rateRemainders[meter] = 0;
+	}
+
+	long getRateNumerator(int meter)
+	{
+		return rateNumerators[meter];
+	}
+
+	long getRateDenominator(int meter)
+	{
+		return rateDenominators[meter];
+	}
+
+	boolean hasFlag(int meter, int flag)
+	{
+		return (flags[meter] & flag) != 0;
+	}
+
+	void setFlag(int meter, int flag, boolean enabled)
+	{
+		if (enabled)
+		{
+			flags[meter] |= flag;
+		}
+		else
+		{
+			flags[meter] &= ~flag;
+		}
+	}
+
+	ThresholdLevels getThresholds(int meter)
+	{
+		return thresholds[meter];
+	}
+
+	// Unchanged levels keep their alert state; new levels treat whatever is already crossed as announced
+	void setThresholds(int meter, ThresholdLevels levels, int currentUnits)
+	{
+		if (levels.equals(thresholds[meter]))
+		{
+			return;
+		}
+		thresholds[meter] = levels;
+		alertedLevels[meter] = levels.firstCrossed(currentUnits);
+	}
+
+	// Index of the most severe level already alerted, or the level count when none has fired
+	int getAlertedLevel(int meter)
+	{
+		return alertedLevels[meter];
+	}
+
+	void setAlertedLevel(int meter, int level)
+	{
+		alertedLevels[meter] = level;
+	}
+
+	Color getColour(int meter)
+	{
+		return colours[meter];
+	}
+
+	// Orb fill for a whole percent, from the lookup table built by setColours
+	Color getFillColour(int meter, int percent)
+	{
+		return fillTables[meter][percent];
+	}
+
+	// Builds a 0-100 fill table fading from the base colour at full to warning at warningPercent and critical at empty
+	void setColours(int meter, Color colour, Color warning, Color critical, int warningPercent)
+	{
+		colours[meter] = colour;
+		Color[] table = fillTables[meter] != null ? fillTables[meter] : new Color[101];
+		for (int percent = 0; percent <= 100; percent++)
+		{
+			if (percent >= warningPercent)
+			{
+				float t = warningPercent >= 100 ? 1f : (percent - warningPercent) / (100f - warningPercent);
+				table[percent] = blend(warning, colour, t);
+			}
+			else
+			{
+				table[percent] = blend(critical, warning, percent / (float) warningPercent);
+			}
+		}
+		fillTables[meter] = table;
+	}
+
+	private static Color blend(Color from, Color to, float t)
+	{
+		return new Color(
+			Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+			Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+			Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t),
+			FILL_ALPHA
+		);
+	}
+
+	int getIconItemId(int meter)
+	{
+		return iconItemIds[meter];
+	}
+
+	void setIconItemId(int meter, int itemId)
+	{
+		iconItemIds[meter] = itemId;
+	}
+}
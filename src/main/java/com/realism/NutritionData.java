@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class NutritionData
+{
+	static final int UNKNOWN_HUNGER = Short.MIN_VALUE;
+	static final int UNKNOWN_THIRST = Byte.MIN_VALUE;
+
+	private static final String RESOURCE = "nutrition.json";
+	private static final int SUPPORTED_VERSION = 1;
+	private static final int MAX_ITEM_ID = 0xFFFF;
+
+	static class Pack
+	{
+		int version;
+		List<Entry> items;
+	}
+
+	static class Entry
+	{
+		int id;
+		String name;
+		Integer hunger;
+		Integer thirst;
+		Integer poison;
+	}
+
+	private List<Entry> bundled;
+	private short[] hungerByItemId = new short[0];
+	private byte[] thirstByItemId = new byte[0];
+	private byte[] poisonByItemId = new byte[0];
+
+	void load(Gson gson, String overrides)
+	{
+		if (bundled == null)
+		{
+			bundled = readBundled(gson);
+		}
+		index(overrides);
+	}
+
+	void clear()
+	{
+		bundled = null;
+		hungerByItemId = new short[0];
+		thirstByItemId = new byte[0];
+		poisonByItemId = new byte[0];
+	}
+
+	void index(String overrides)
+	{
+		List<Entry> entries = new ArrayList<>(bundled != null ? bundled : Collections.emptyList());
+		entries.addAll(parseOverrides(overrides));
+
+		int maxId = -1;
+		for (Entry entry : entries)
+		{
+			if (entry.id <= MAX_ITEM_ID)
+			{
+				maxId = Math.max(maxId, entry.id);
+			}
+		}
+
+		short[] hunger = new short[maxId + 1];
+		byte[] thirst = new byte[maxId + 1];
+		byte[] poison = new byte[maxId + 1];
+		Arrays.fill(hunger, (short) UNKNOWN_HUNGER);
+		Arrays.fill(thirst, (byte) UNKNOWN_THIRST);
+
+		// Overrides come last so they replace bundled values field by field
+		for (Entry entry : entries)
+		{
+			if (entry.id < 0 || entry.id > MAX_ITEM_ID)
+			{
+				continue;
+			}
+			if (entry.hunger != null)
+			{
+				hunger[entry.id] = (short) clamp(entry.hunger, Short.MIN_VALUE + 1, Short.MAX_VALUE);
+			}
+			if (entry.thirst != null)
+			{
+				thirst[entry.id] = (byte) clamp(entry.thirst, Byte.MIN_VALUE + 1, Byte.MAX_VALUE);
+			}
+			if (entry.poison != null)
+			{
+				poison[entry.id] = (byte) clamp(entry.poison, 0, Byte.MAX_VALUE);
+			}
+		}
+
+		hungerByItemId = hunger;
+		thirstByItemId = thirst;
+		poisonByItemId = poison;
+	}
+
+	int getHunger(int itemId)
+	{
+		return itemId >= 0 && itemId < hungerByItemId.length ? hungerByItemId[itemId] : UNKNOWN_HUNGER;
+	}
+
+	int getThirst(int itemId)
+	{
+		return itemId >= 0 && itemId < thirstByItemId.length ? thirstByItemId[itemId] : UNKNOWN_THIRST;
+	}
+
+	int getPoison(int itemId)
+	{
+		return itemId >= 0 && itemId < poisonByItemId.length ? poisonByItemId[itemId] : 0;
+	}
+
+	private static List<Entry> readBundled(Gson gson)
+	{
+		try (InputStream in = NutritionData.class.getResourceAsStream(RESOURCE))
+		{
+			if (in == null)
+			{
+				return Collections.emptyList();
+			}
+			Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+			Pack pack = gson.fromJson(reader, Pack.class);
+			if (pack == null || pack.version != SUPPORTED_VERSION || pack.items == null)
+			{
+				return Collections.emptyList();
+			}
+			return pack.items;
+		}
+		catch (IOException | JsonParseException e)
+		{
+			return Collections.emptyList();
+		}
+	}
+
+	// Overrides are comma separated itemId:hunger:thirst[:poison]; blank fields keep the bundled value
+	private static List<Entry> parseOverrides(String overrides)
+	{
+		if (overrides == null || overrides.trim().isEmpty())
+		{
+			return Collections.emptyList();
+		}
+
+		List<Entry> entries = new ArrayList<>();
+		for (String token : overrides.split("[,\\n]"))
+		{
+			String[] fields = token.trim().split(":", -1);
+			if (fields.length < 2)
+			{
+				continue;
+			}
+			try
+			{
+				Entry entry = new Entry();
+				entry.id = Integer.parseInt(fields[0].trim());
+				entry.hunger = parseField(fields, 1);
+				entry.thirst = parseField(fields, 2);
+				entry.poison = parseField(fields, 3);
+				entries.add(entry);
+			}
+			catch (NumberFormatException e)
+			{
+				// Skip malformed entries rather than dropping every override
+			}
+		}
+		return entries;
+	}
+
+	private static Integer parseField(String[] fields, int index)
+	{
+		if (index >= fields.length || fields[index].trim().isEmpty())
+		{
+			return null;
+		}
+		return Integer.parseInt(fields[index].trim());
+	}
+
+	private static int clamp(int value, int min, int max)
+	{
+		return Math.max(min, Math.min(max, value));
+	}
+}
@@ -77,6 +77,40 @@ public interface RealismConfig extends Config
 		return 60;
 	}
 
+	@ConfigItem(
+		keyName = "desertThirstModifier",
+		name = "Desert Thirst Drain (%)",
+		description = "Thirst drain speed in the Kharidian Desert and Tombs of Amascut, as a percentage of the normal rate"
+	)
+	@Range(min = 0, max = 500)
+	default int desertThirstModifier()
+	{
+		return 150;
+	}
+
+	@ConfigItem(
+		keyName = "wildernessHungerModifier",
+		name = "Wilderness Hunger Drain (%)",
+		description = "Hunger drain speed in the Wilderness, as a percentage of the normal rate"
+	)
+	@Range(min = 0, max = 500)
+	default int wildernessHungerModifier()
+	{
+		return 125;
+	}
+
+	@ConfigItem(
+		keyName = "drainRules",
+		name = "Drain Rules",
+		description = "Optional drain formulas, one per line or separated by ';', e.g. hunger = base * (1 + 0.5*inCombat) * regionMod. "
+			+ "Only hunger and thirst accept rules. Variables: base, inCombat, runEnergy, weight, regionMod. "
+			+ "The result multiplies the meter's drain rate"
+	)
+	default String drainRules()
+	{
+		return "";
+	}
+
 	@ConfigItem(
 		keyName = "hungerColour",
 		name = "Hunger Colour",
@@ -107,6 +141,36 @@ public interface RealismConfig extends Config
 		return Color.YELLOW;
 	}
 
+	@ConfigItem(
+		keyName = "colourGradient",
+		name = "Colour Gradient",
+		description = "Fade each orb from its colour toward the warning colour at its low threshold and the critical colour when empty"
+	)
+	default boolean colourGradient()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "warningColour",
+		name = "Warning Colour",
+		description = "Orb colour at the low threshold when the colour gradient is enabled"
+	)
+	default Color warningColour()
+	{
+		return new Color(255, 120, 0);
+	}
+
+	@ConfigItem(
+		keyName = "criticalColour",
+		name = "Critical Colour",
+		description = "Orb colour when a meter is empty and the colour gradient is enabled"
+	)
+	default Color criticalColour()
+	{
+		return Color.RED;
+	}
+
 	@ConfigItem(
 		keyName = "hungerLowThreshold",
 		name = "Hunger Low Threshold (%)",
@@ -200,6 +264,37 @@ public interface RealismConfig extends Config
 		return "Your gear has broken!";
 	}
 
+	@ConfigItem(
+		keyName = "hungerExtraThresholds",
+		name = "Extra Hunger Thresholds",
+		description = "Additional hunger alerts, one per line or separated by ';', as percent|message|#colour|notify, "
+			+ "e.g. 50|You could eat something.|#ffc800|false. Colour and notify are optional"
+	)
+	default String hungerExtraThresholds()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+		keyName = "thirstExtraThresholds",
+		name = "Extra Thirst Thresholds",
+		description = "Additional thirst alerts in the same format as the extra hunger thresholds"
+	)
+	default String thirstExtraThresholds()
+	{
+		return "";
+	}
+
+	@ConfigItem(
+		keyName = "durabilityExtraThresholds",
+		name = "Extra Durability Thresholds",
+		description = "Additional durability alerts in the same format as the extra hunger thresholds"
+	)
+	default String durabilityExtraThresholds()
+	{
+		return "";
+	}
+
 	@ConfigItem(
 		keyName = "notifyHunger",
 		name = "Notify Hunger",
@@ -230,6 +325,39 @@ public interface RealismConfig extends Config
 		return true;
 	}
 
+	@ConfigItem(
+		keyName = "alertHysteresis",
+		name = "Alert Hysteresis (%)",
+		description = "How far a meter must climb back above a threshold before that alert can fire again"
+	)
+	@Range(min = 0, max = 50)
+	default int alertHysteresis()
+	{
+		return 5;
+	}
+
+	@ConfigItem(
+		keyName = "alertBurst",
+		name = "Alert Burst",
+		description = "Maximum alerts per meter that can fire back to back, separately for chat and desktop notifications"
+	)
+	@Range(min = 1, max = 10)
+	default int alertBurst()
+	{
+		return 2;
+	}
+
+	@ConfigItem(
+		keyName = "alertCooldown",
+		name = "Alert Cooldown (seconds)",
+		description = "Seconds for each meter to regain one alert after a burst; 0 disables rate limiting"
+	)
+	@Range(min = 0, max = 3600)
+	default int alertCooldown()
+	{
+		return 60;
+	}
+
 	@ConfigItem(
 		keyName = "foodHealWeight",
 		name = "Food Heal Weight",
@@ -261,6 +389,16 @@ public interface RealismConfig extends Config
 		return 10;
 	}
 
+	@ConfigItem(
+		keyName = "nutritionOverrides",
+		name = "Nutrition Overrides",
+		description = "Comma separated itemId:hunger:thirst[:poison] values that replace the bundled nutrition data, e.g. 1937::30"
+	)
+	default String nutritionOverrides()
+	{
+		return "";
+	}
+
 	enum HungerIcon
 	{
 		MEAT,
@@ -278,6 +416,65 @@ public interface RealismConfig extends Config
 		return HungerIcon.MEAT;
 	}
 
+	enum OrbLayout
+	{
+		HORIZONTAL,
+		VERTICAL,
+		GRID
+	}
+
+	@ConfigItem(
+		keyName = "showVignette",
+		name = "Starvation Vignette",
+		description = "Darken the edges of the game view as hunger or thirst run out"
+	)
+	default boolean showVignette()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "vignetteThreshold",
+		name = "Vignette Threshold (%)",
+		description = "Hunger or thirst level below which the vignette starts to appear, reaching full strength when empty"
+	)
+	@Range(min = 1, max = 50)
+	default int vignetteThreshold()
+	{
+		return 10;
+	}
+
+	@ConfigItem(
+		keyName = "hideFullMeters",
+		name = "Hide Full Meters",
+		description = "Only show orbs for meters that are below 100%"
+	)
+	default boolean hideFullMeters()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "orbLayout",
+		name = "Orb Layout",
+		description = "Arrange the orbs in a row, a column or a square grid"
+	)
+	default OrbLayout orbLayout()
+	{
+		return OrbLayout.HORIZONTAL;
+	}
+
+	@ConfigItem(
+		keyName = "orbScale",
+		name = "Orb Scale (%)",
+		description = "Size of the orbs, their icons and text"
+	)
+	@Range(min = 50, max = 300)
+	default int orbScale()
+	{
+		return 100;
+	}
+
 	@ConfigItem(
 		keyName = "restrictBrokenEquip",
 		name = "Restrict Broken Equip",
@@ -287,6 +484,78 @@ public interface RealismConfig extends Config
 	{
 		return true;
 	}
+
+	@ConfigItem(
+		keyName = "showForecast",
+		name = "Show Time Until Empty",
+		description = "Show how long until each meter runs out under its orb. Hovering an orb always shows the full forecast"
+	)
+	default boolean showForecast()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "supplyIncludeBank",
+		name = "Count Banked Supplies",
+		description = "Include food and drink in your bank (as last seen) when estimating how long supplies last"
+	)
+	default boolean supplyIncludeBank()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "showSparklines",
+		name = "Show History Sparklines",
+		description = "Draw a small graph of recent values under each orb"
+	)
+	default boolean showSparklines()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "historySampleInterval",
+		name = "History Sample Interval (ticks)",
+		description = "Game ticks between history samples. 1200 samples are kept, so 10 ticks covers the last two hours"
+	)
+	@Range(min = 1, max = 600)
+	default int historySampleInterval()
+	{
+		return 10;
+	}
+
+	@ConfigItem(
+		keyName = "showDurabilityBars",
+		name = "Show Durability Bars",
+		description = "Draw a durability bar on worn items and tint broken items in the inventory and equipment tabs"
+	)
+	default boolean showDurabilityBars()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "pauseWhenIdle",
+		name = "Pause When Idle",
+		description = "Freeze all meters while you are not using the keyboard or mouse, not moving and not animating"
+	)
+	default boolean pauseWhenIdle()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "idleGracePeriod",
+		name = "Idle Grace Period (seconds)",
+		description = "Seconds without keyboard or mouse input before meters are frozen"
+	)
+	@Range(min = 5, max = 3600)
+	default int idleGracePeriod()
+	{
+		return 60;
+	}
 }package com.realism;
 
 import java.awt.Color;
@@ -5,41 +5,96 @@
  */
 package com.realism;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Point;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
 import net.runelite.client.ui.overlay.OverlayPriority;
+import net.runelite.client.ui.overlay.tooltip.Tooltip;
+import net.runelite.client.ui.overlay.tooltip.TooltipManager;
 
 @Singleton
 public class RealismOrbOverlay extends Overlay
 {
-	public enum MeterType
-	{
-		HUNGER,
-		THIRST,
-		DURABILITY
-	}
-
+	// Sizes at 100% scale, multiplied by the configured scale whenever the layout is rebuilt
 	private static final int ORB_SIZE = 36;
 	private static final int ICON_SIZE = 18;
 	private static final int GAP = 8;
-	private static final MeterType[] METERS = {MeterType.HUNGER, MeterType.THIRST, MeterType.DURABILITY};
+	private static final int TEXT_OFFSET = 12;
+	private static final int LABEL_OFFSET = 24;
+	private static final int SPARKLINE_GAP = 4;
+	private static final int SPARKLINE_HEIGHT = 14;
+	private static final int DESCENT = 3;
+	private static final float FONT_SIZE = 10f;
+	private static final Color SPARKLINE_BACKGROUND = new Color(0, 0, 0, 100);
+	private static final Color ORB_BACKGROUND = new Color(0, 0, 0, 100);
+	private static final String[] PERCENT_TEXT = new String[101];
+
+	static
+	{
+		for (int percent = 0; percent <= 100; percent++)
+		{
+			PERCENT_TEXT[percent] = percent + "%";
+		}
+	}
 
 	private final RealismPlugin plugin;
-	private final RealismConfig config;
+	private final Client client;
+	private final TooltipManager tooltipManager;
+	private String tooltipText;
+	private Tooltip tooltip;
+
+	private int layoutRevision = -1;
+	private boolean layoutSparklines;
+	private long layoutShown;
+	private Font font;
+	private FontMetrics fontMetrics;
+	private int orbSize;
+	private int iconSize;
+	private int iconOffset;
+	private int textBaseline;
+	private int labelBaseline;
+	private int sparklineTop;
+	private int sparklineHeight;
+	// Top-left of each meter's orb relative to the overlay, x is -1 for hidden meters
+	private int[] orbX = new int[0];
+	private int[] orbY = new int[0];
+	private final int[] percentTextWidths = new int[101];
+	private String[] labelTexts = new String[0];
+	private int[] labelWidths = new int[0];
+	private BufferedImage[] scaledIcons = new BufferedImage[0];
+	private BufferedImage[] scaledIconSources = new BufferedImage[0];
+	private Dimension dimension = new Dimension();
+
+	private BufferedImage[] sparklines = new BufferedImage[0];
+	private Color[] sparklineColours = new Color[0];
+	private int sparklineRevision = -1;
+
+	private BufferedImage cachedFrame;
+	private int cachedFrameTick = -1;
+	private int cachedFrameLayout = -1;
 
 	@Inject
-	public RealismOrbOverlay(RealismPlugin plugin, RealismConfig config)
+	public RealismOrbOverlay(RealismPlugin plugin, Client client, TooltipManager tooltipManager)
 	{
 		this.plugin = plugin;
-		this.config = config;
+		this.client = client;
+		this.tooltipManager = tooltipManager;
 		setPosition(OverlayPosition.TOP_LEFT);
 		setPriority(OverlayPriority.HIGH);
 		setLayer(OverlayLayer.ABOVE_SCENE);
@@ -49,93 +104,323 @@ public class RealismOrbOverlay extends Overlay
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		int x = 0;
-		int drawn = 0;
+		if (client.getGameState() != GameState.LOGGED_IN)
+		{
+			return null;
+		}
+
+		MeterRegistry meters = plugin.getMeters();
+		long shown = shownMeters(meters);
+		if (shown == 0)
+		{
+			return null;
+		}
+
+		boolean showSparklines = plugin.isShowSparklines() && plugin.getHistory().size() > 1;
+		boolean showForecast = plugin.isShowForecast();
+		if (layoutRevision != plugin.getLayoutRevision() || layoutSparklines != showSparklines || layoutShown != shown
+			|| orbX.length != meters.size())
+		{
+			updateLayout(graphics, meters, shown, showForecast, showSparklines);
+		}
+		if (showSparklines)
+		{
+			updateSparklines(meters, plugin.getHistory());
+		}
+
+		if (client.isFocused())
+		{
+			cachedFrameTick = -1;
+			drawOrbs(graphics, meters, showForecast, showSparklines, true);
+			return dimension;
+		}
+
+		// Nothing changes between game ticks while the client is in the background, so one frame per tick is reused
+		int tick = client.getTickCount();
+		if (cachedFrame == null || cachedFrame.getWidth() != dimension.width || cachedFrame.getHeight() != dimension.height)
+		{
+			cachedFrame = new BufferedImage(dimension.width, dimension.height, BufferedImage.TYPE_INT_ARGB);
+			cachedFrameTick = -1;
+		}
+		if (cachedFrameTick != tick || cachedFrameLayout != layoutRevision)
+		{
+			Graphics2D g = cachedFrame.createGraphics();
+			g.setComposite(AlphaComposite.Clear);
+			g.fillRect(0, 0, dimension.width, dimension.height);
+			g.setComposite(AlphaComposite.SrcOver);
+			g.setRenderingHints(graphics.getRenderingHints());
+			drawOrbs(g, meters, showForecast, showSparklines, false);
+			g.dispose();
+			cachedFrameTick = tick;
+			cachedFrameLayout = layoutRevision;
+		}
+		graphics.drawImage(cachedFrame, 0, 0, null);
+		return dimension;
+	}
+
+	// Bit per meter that should be drawn: enabled, and not full when full meters are hidden
+	private long shownMeters(MeterRegistry meters)
+	{
+		boolean hideFull = plugin.isHideFullMeters();
+		long shown = 0;
+		for (int meter = 0; meter < meters.size(); meter++)
+		{
+			if (meters.hasFlag(meter, MeterRegistry.FLAG_VISIBLE) && !(hideFull && meters.getUnits(meter) >= FixedPoint.FULL))
+			{
+				shown |= 1L << meter;
+			}
+		}
+		return shown;
+	}
+
+	private void drawOrbs(Graphics2D graphics, MeterRegistry meters, boolean showForecast, boolean showSparklines, boolean hover)
+	{
+		MeterForecast forecast = plugin.getForecast();
+		int mouseX = -1;
+		int mouseY = -1;
+		if (hover)
+		{
+			Rectangle bounds = getBounds();
+			Point mouse = client.getMouseCanvasPosition();
+			mouseX = mouse.getX() - bounds.x;
+			mouseY = mouse.getY() - bounds.y;
+		}
+		int hovered = -1;
 
 		Object oldAntialias = graphics.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
 		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics.setFont(font);
 
-		for (MeterType type : METERS)
+		for (int meter = 0; meter < orbX.length; meter++)
 		{
-			if (!shouldDraw(type))
+			int x = orbX[meter];
+			int y = orbY[meter];
+			if (x < 0)
 			{
 				continue;
 			}
-			double value = getValueForMeter(type);
-			Color colour = plugin.getColourForMeter(type);
-			BufferedImage icon = plugin.getIconForMeter(type);
-			drawOrb(graphics, x, 0, value, colour, icon);
-			x += ORB_SIZE + GAP;
-			drawn++;
+			double value = meters.getValue(meter);
+			int percent = (int) Math.round(Math.max(0.0, Math.min(100.0, value)));
+			drawOrb(graphics, x, y, value, percent, meters.getFillColour(meter, percent), scaledIcon(meter));
+			if (showForecast)
+			{
+				String label = forecast.getLabel(meter);
+				if (label != labelTexts[meter])
+				{
+					// Labels change at most once a minute, so they are measured then rather than every frame
+					labelTexts[meter] = label;
+					labelWidths[meter] = fontMetrics.stringWidth(label);
+				}
+				graphics.drawString(label, x + (orbSize - labelWidths[meter]) / 2, y + labelBaseline);
+			}
+			if (showSparklines)
+			{
+				graphics.drawImage(sparklines[meter], x, y + sparklineTop, null);
+			}
+			if (mouseX >= x && mouseX < x + orbSize && mouseY >= y && mouseY < y + orbSize)
+			{
+				hovered = meter;
+			}
 		}
 
 		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, oldAntialias);
 
-		int width = drawn * ORB_SIZE + Math.max(0, drawn - 1) * GAP;
-		return new Dimension(width, ORB_SIZE);
+		if (hovered >= 0)
+		{
+			// Tooltip text only changes with whole minute or percent values, so the tooltip is reused until then
+			String text = plugin.getTooltip(hovered);
+			if (!text.equals(tooltipText))
+			{
+				tooltipText = text;
+				tooltip = new Tooltip(text);
+			}
+			tooltipManager.add(tooltip);
+		}
 	}
 
-	private boolean shouldDraw(MeterType type)
+	// Runs once per config change or change in shown meters; every position, size and text width used while rendering comes from here
+	private void updateLayout(Graphics2D graphics, MeterRegistry meters, long shown, boolean showForecast, boolean showSparklines)
 	{
-		switch (type)
+		float scale = plugin.getOrbScale();
+		orbSize = scaled(ORB_SIZE, scale);
+		iconSize = scaled(ICON_SIZE, scale);
+		iconOffset = (orbSize - iconSize) / 2;
+		int gap = scaled(GAP, scale);
+		textBaseline = orbSize + scaled(TEXT_OFFSET, scale);
+		labelBaseline = orbSize + scaled(LABEL_OFFSET, scale);
+		int lastBaseline = showForecast ? labelBaseline : textBaseline;
+		sparklineTop = lastBaseline + scaled(SPARKLINE_GAP, scale);
+		sparklineHeight = scaled(SPARKLINE_HEIGHT, scale);
+		int cellHeight = showSparklines ? sparklineTop + sparklineHeight : lastBaseline + scaled(DESCENT, scale);
+
+		font = graphics.getFont().deriveFont(FONT_SIZE * scale);
+		fontMetrics = graphics.getFontMetrics(font);
+		for (int percent = 0; percent <= 100; percent++)
 		{
-			case HUNGER:
-				return config.showHunger();
-			case THIRST:
-				return config.showThirst();
-			case DURABILITY:
-				return config.showDurability();
+			percentTextWidths[percent] = fontMetrics.stringWidth(PERCENT_TEXT[percent]);
+		}
+
+		int size = meters.size();
+		int visible = Long.bitCount(shown);
+		int columns;
+		switch (plugin.getOrbLayout())
+		{
+			case VERTICAL:
+				columns = 1;
+				break;
+			case GRID:
+				columns = Math.max(1, (int) Math.ceil(Math.sqrt(visible)));
+				break;
 			default:
-				return false;
+				columns = Math.max(1, visible);
+				break;
+		}
+
+		orbX = new int[size];
+		orbY = new int[size];
+		labelTexts = new String[size];
+		labelWidths = new int[size];
+		int width = 0;
+		int height = 0;
+		int index = 0;
+		for (int meter = 0; meter < size; meter++)
+		{
+			if ((shown & 1L << meter) == 0)
+			{
+				orbX[meter] = -1;
+				continue;
+			}
+			orbX[meter] = index % columns * (orbSize + gap);
+			orbY[meter] = index / columns * (cellHeight + gap);
+			width = Math.max(width, orbX[meter] + orbSize);
+			height = Math.max(height, orbY[meter] + cellHeight);
+			index++;
 		}
+		dimension = new Dimension(width, height);
+
+		// Scaled assets are rebuilt at the new size on their next use
+		Arrays.fill(scaledIconSources, null);
+		sparklines = new BufferedImage[0];
+		layoutRevision = plugin.getLayoutRevision();
+		layoutSparklines = showSparklines;
+		layoutShown = shown;
+	}
+
+	private static int scaled(int size, float scale)
+	{
+		return Math.max(1, Math.round(size * scale));
 	}
 
-	private double getValueForMeter(MeterType type)
+	// Icons are resampled once per layout or sprite change so HiDPI scales stay crisp and no frame scales an image
+	private BufferedImage scaledIcon(int meter)
 	{
-		switch (type)
+		BufferedImage source = plugin.getIconForMeter(meter);
+		if (scaledIcons.length != orbX.length)
 		{
-			case HUNGER:
-				return plugin.getHunger();
-			case THIRST:
-				return plugin.getThirst();
-			case DURABILITY:
-				return plugin.getAverageDurability();
-			default:
-				return 100.0;
+			scaledIcons = new BufferedImage[orbX.length];
+			scaledIconSources = new BufferedImage[orbX.length];
 		}
+		if (source == null)
+		{
+			return null;
+		}
+		if (scaledIconSources[meter] != source)
+		{
+			BufferedImage image = new BufferedImage(iconSize, iconSize, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(source, 0, 0, iconSize, iconSize, null);
+			g.dispose();
+			scaledIcons[meter] = image;
+			scaledIconSources[meter] = source;
+		}
+		return scaledIcons[meter];
 	}
 
-	private void drawOrb(Graphics2D g, int x, int y, double value, Color colour, BufferedImage icon)
+	private void updateSparklines(MeterRegistry meters, MeterHistory history)
 	{
-		double fraction = Math.max(0.0, Math.min(1.0, value / 100.0));
-		Color background = new Color(0, 0, 0, 100);
-		Color fill = new Color(colour.getRed(), colour.getGreen(), colour.getBlue(), 180);
+		if (sparklines.length != meters.size())
+		{
+			sparklines = new BufferedImage[meters.size()];
+			sparklineColours = new Color[meters.size()];
+			sparklineRevision = -1;
+		}
+
+		boolean stale = sparklineRevision != history.getRevision();
+		for (int meter = 0; meter < sparklines.length; meter++)
+		{
+			// The path is only rebuilt when a sample arrives or the colour changes, every other frame is one blit
+			if (stale || sparklineColours[meter] != meters.getColour(meter))
+			{
+				renderSparkline(meter, meters.getColour(meter), history);
+			}
+		}
+		sparklineRevision = history.getRevision();
+	}
+
+	private void renderSparkline(int meter, Color colour, MeterHistory history)
+	{
+		BufferedImage image = sparklines[meter];
+		if (image == null)
+		{
+			image = new BufferedImage(orbSize, sparklineHeight, BufferedImage.TYPE_INT_ARGB);
+			sparklines[meter] = image;
+		}
+		sparklineColours[meter] = colour;
+
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, orbSize, sparklineHeight);
+		g.setComposite(AlphaComposite.SrcOver);
+		g.setColor(SPARKLINE_BACKGROUND);
+		g.fillRect(0, 0, orbSize, sparklineHeight);
+
+		int samples = history.size();
+		float xStep = (orbSize - 1f) / (samples - 1);
+		float yScale = (sparklineHeight - 1f) / 100f;
+		Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, samples);
+		for (int i = 0; i < samples; i++)
+		{
+			float px = i * xStep;
+			float py = (sparklineHeight - 1f) - history.get(meter, i) * yScale;
+			if (i == 0)
+			{
+				path.moveTo(px, py);
+			}
+			else
+			{
+				path.lineTo(px, py);
+			}
+		}
+
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setColor(colour);
+		g.draw(path);
+		g.dispose();
+	}
 
-		g.setColor(background);
-		g.fillOval(x, y, ORB_SIZE, ORB_SIZE);
+	private void drawOrb(Graphics2D g, int x, int y, double value, int percent, Color fill, BufferedImage icon)
+	{
+		double fraction = Math.max(0.0, Math.min(1.0, value / 100.0));
+		g.setColor(ORB_BACKGROUND);
+		g.fillOval(x, y, orbSize, orbSize);
 
 		g.setColor(fill);
 		int startAngle = 90;
 		int arcAngle = (int) -(360 * fraction);
-		g.fillArc(x, y, ORB_SIZE, ORB_SIZE, startAngle, arcAngle);
+		g.fillArc(x, y, orbSize, orbSize, startAngle, arcAngle);
 
 		g.setColor(Color.BLACK);
-		g.drawOval(x, y, ORB_SIZE, ORB_SIZE);
+		g.drawOval(x, y, orbSize, orbSize);
 
 		if (icon != null)
 		{
-			int ix = x + (ORB_SIZE - ICON_SIZE) / 2;
-			int iy = y + (ORB_SIZE - ICON_SIZE) / 2;
-			g.drawImage(icon, ix, iy, ICON_SIZE, ICON_SIZE, null);
+			g.drawImage(icon, x + iconOffset, y + iconOffset, null);
 		}
 
-		String text = String.format("%d%%", (int) Math.round(value));
 		g.setColor(Color.WHITE);
-		g.setFont(g.getFont().deriveFont(10f));
-		int textWidth = g.getFontMetrics().stringWidth(text);
-		int tx = x + (ORB_SIZE - textWidth) / 2;
-		int ty = y + ORB_SIZE + 12;
-		g.drawString(text, tx, ty);
+		g.drawString(PERCENT_TEXT[percent], x + (orbSize - percentTextWidths[percent]) / 2, y + textBaseline);
 	}
 }package com.realism;
 
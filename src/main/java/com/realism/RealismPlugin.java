@@ -6,23 +6,43 @@
 package com.realism;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
 import com.google.inject.Provides;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.IntToDoubleFunction;
 import javax.inject.Inject;
+import net.runelite.api.AnimationID;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
+import net.runelite.api.Constants;
 import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemID;
 import net.runelite.api.MenuAction;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.CommandExecuted;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.api.events.PostClientTick;
+import net.runelite.api.events.WidgetClosed;
+import net.runelite.api.events.WidgetLoaded;
+import net.runelite.api.widgets.InterfaceID;
 import net.runelite.client.Notifier;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
@@ -42,12 +62,26 @@ import net.runelite.client.util.Text;
 public class RealismPlugin extends Plugin
 {
 	private static final int TICKS_PER_MINUTE = 100;
+	private static final int MAX_DRAIN_MODIFIER = 100 * MeterRegistry.DRAIN_MODIFIER_SCALE;
+	private static final int HISTORY_CAPACITY = 1200;
+	private static final int CONSUMPTION_LOG_CAPACITY = 4096;
+	private static final Set<String> CONSUME_OPTIONS = ImmutableSet.of("Eat", "Drink");
 	private static final Set<String> EQUIP_OPTIONS = ImmutableSet.of("Wield", "Wear", "Equip", "Hold");
-	private static final Set<MenuAction> EQUIP_ACTIONS = ImmutableSet.of(MenuAction.CC_OP, MenuAction.CC_OP_LOW_PRIORITY);
+	private static final int CC_OP = MenuAction.CC_OP.getId();
+	private static final int CC_OP_LOW_PRIORITY = MenuAction.CC_OP_LOW_PRIORITY.getId();
+	private static final int[] SUSPEND_INTERFACES = {
+		InterfaceID.BANK,
+		InterfaceID.DEPOSIT_BOX,
+		InterfaceID.TRADE,
+		InterfaceID.TRADE_CONFIRMATION,
+		InterfaceID.SHOP
+	};
 
 	@Inject
 	private Client client;
 	@Inject
+	private ClientThread clientThread;
+	@Inject
 	private RealismConfig config;
 	@Inject
 	private ItemManager itemManager;
@@ -59,17 +93,64 @@ public class RealismPlugin extends Plugin
 	private Notifier notifier;
 	@Inject
 	private RealismOrbOverlay orbOverlay;
-
-	private final MeterState hunger = new MeterState(100.0);
-	private final MeterState thirst = new MeterState(100.0);
+	@Inject
+	private DurabilityItemOverlay durabilityItemOverlay;
+	@Inject
+	private StarvationOverlay starvationOverlay;
+	@Inject
+	private Gson gson;
+	@Inject
+	private ScheduledExecutorService executor;
+
+	private final MeterRegistry meters = new MeterRegistry();
+	private final int hungerMeter = meters.register("Hunger");
+	private final int thirstMeter = meters.register("Thirst");
+	private final int durabilityMeter = meters.register("Durability");
+	private final RegionModifiers regionModifiers = new RegionModifiers(meters.size());
+	private final AlertLimiter alertLimiter = new AlertLimiter(meters.size());
+	private final AlertQueue alertQueue = new AlertQueue();
+	private final MeterHistory history = new MeterHistory(meters.size(), HISTORY_CAPACITY);
+	private final MeterForecast forecast = new MeterForecast(meters.size());
+	private final ConsumptionLog consumptionLog = new ConsumptionLog(CONSUMPTION_LOG_CAPACITY);
+	private final HistoryExporter historyExporter = new HistoryExporter(meters.size(), HISTORY_CAPACITY, CONSUMPTION_LOG_CAPACITY);
 	private final DurabilityTracker durabilityTracker = new DurabilityTracker();
-	private final ConsumptionDetector consumptionDetector = new ConsumptionDetector();
-
-	private BufferedImage hungerIcon;
-	private BufferedImage thirstIcon;
-	private BufferedImage durabilityIcon;
-	private RealismConfig.HungerIcon cachedHungerIcon;
+	private final NutritionData nutritionData = new NutritionData();
+	private final DoseFamilyIndex doseFamilies = new DoseFamilyIndex();
+	private final ConsumptionDetector consumptionDetector = new ConsumptionDetector(doseFamilies);
+	private final ConsumptionDispatcher consumptionDispatcher = new ConsumptionDispatcher();
+	private final ConsumptionDetector.ConsumptionHandler consumptionHandler = this::onItemConsumed;
+	private final SupplyIndex supplyIndex = new SupplyIndex(doseFamilies, this::isConsumable, meters.size());
+	private final ItemSnapshot bankSnapshot = new ItemSnapshot();
+	private final Map<Integer, String> itemNames = new HashMap<>();
+	private final DurabilityTooltip durabilityTooltip = new DurabilityTooltip(durabilityTracker, this::getItemName);
+
+	private BufferedImage[] icons = new BufferedImage[0];
 	private boolean iconsDirty = true;
+	private int openSuspendInterfaces;
+	private boolean inventoryDirty;
+	private boolean equipmentDirty;
+	private boolean bankDirty;
+	private boolean supplyIncludeBank;
+	private int currentRegionId = -1;
+	private int currentZone = RegionModifiers.ZONE_NONE;
+	private DrainRules.Expression[] drainRules = new DrainRules.Expression[0];
+	private final double[] ruleVariables = new double[DrainRules.VARIABLE_COUNT];
+	private boolean hasDrainRules;
+	private int idleGraceClientTicks;
+	private boolean restrictBrokenEquip;
+	private int alertHysteresisUnits;
+	private int historySampleInterval;
+	private int ticksSinceSample;
+	private boolean showSparklines;
+	private boolean showForecast;
+	private boolean showDurabilityBars;
+	private boolean hideFullMeters;
+	private int vignetteThresholdUnits;
+	private int vignetteStep;
+	private float orbScale = 1f;
+	private RealismConfig.OrbLayout orbLayout = RealismConfig.OrbLayout.HORIZONTAL;
+	private int layoutRevision;
+	private WorldPoint idleLocation;
 
 	@Provides
 	RealismConfig provideConfig(ConfigManager configManager)
@@ -80,29 +161,75 @@ public class RealismPlugin extends Plugin
 	@Override
 	protected void startUp()
 	{
+		nutritionData.load(gson, config.nutritionOverrides());
+		consumptionDispatcher.register(new MeterConsumption(meters, hungerMeter, this::resolveHunger));
+		consumptionDispatcher.register(new MeterConsumption(meters, thirstMeter, this::resolveThirst));
+		supplyIndex.register(hungerMeter, this::resolveHunger);
+		supplyIndex.register(thirstMeter, this::resolveThirst);
+		consumptionDetector.setQuantityListener(supplyIndex);
+		bankSnapshot.setListener(supplyIndex);
+		applyConfig();
 		resetState();
 		updateInventorySnapshot();
 		updateEquipmentSnapshot();
 		overlayManager.add(orbOverlay);
+		overlayManager.add(durabilityItemOverlay);
+		overlayManager.add(starvationOverlay);
+		clientThread.invokeLater(this::buildDoseFamilies);
 	}
 
 	@Override
 	protected void shutDown()
 	{
 		overlayManager.remove(orbOverlay);
+		overlayManager.remove(durabilityItemOverlay);
+		overlayManager.remove(starvationOverlay);
+		starvationOverlay.invalidate();
+		vignetteStep = 0;
 		resetState();
 		consumptionDetector.reset();
+		bankSnapshot.clear();
+		supplyIndex.clear();
+		openSuspendInterfaces = 0;
+		inventoryDirty = false;
+		equipmentDirty = false;
+		bankDirty = false;
+		currentRegionId = -1;
+		currentZone = RegionModifiers.ZONE_NONE;
+		idleLocation = null;
 		durabilityTracker.reset();
+		history.clear();
+		consumptionLog.clear();
+		ticksSinceSample = 0;
+		doseFamilies.clear();
+		nutritionData.clear();
+		consumptionDispatcher.clear();
+		itemNames.clear();
+		durabilityTooltip.invalidate();
 		invalidateIcons();
 	}
 
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
-		if ("realism".equals(event.getGroup()))
+		if (!"realism".equals(event.getGroup()))
 		{
-			invalidateIcons();
+			return;
 		}
+
+		// The config panel fires this on the Swing thread, but the meters, supplies and routes are client thread state
+		String key = event.getKey();
+		clientThread.invokeLater(() ->
+		{
+			applyConfig();
+			invalidateIcons();
+			if ("nutritionOverrides".equals(key))
+			{
+				nutritionData.index(config.nutritionOverrides());
+			}
+			consumptionDispatcher.invalidate();
+			supplyIndex.invalidate();
+		});
 	}
 
 	@Subscribe
@@ -113,46 +240,107 @@ public class RealismPlugin extends Plugin
 			return;
 		}
 
-		hunger.drain(perTickLoss(config.hungerDrainRate()));
-		thirst.drain(perTickLoss(config.thirstDrainRate()));
-		durabilityTracker.drain(perTickLoss(config.durabilityDrainRate()));
+		if (isIdle())
+		{
+			return;
+		}
+
+		updateRegion();
+		if (hasDrainRules)
+		{
+			applyDrainRules();
+		}
+		meters.drainAll();
+		durabilityTracker.drain();
+		meters.setUnits(durabilityMeter, durabilityTracker.getAverageUnits());
+
+		for (int meter = 0; meter < meters.size(); meter++)
+		{
+			// Durability warns on the most worn item while its orb shows the average
+			int units = alertUnits(meter);
+			checkMeterThresholds(meter, units);
+			updateForecast(meter, units);
+		}
 
-		checkHungerThresholds();
-		checkThirstThresholds();
-		checkDurabilityThresholds();
+		vignetteStep = vignetteStep(Math.min(meters.getUnits(hungerMeter), meters.getUnits(thirstMeter)));
+
+		if (++ticksSinceSample >= historySampleInterval)
+		{
+			ticksSinceSample = 0;
+			history.record(meters, client.getTickCount());
+		}
+
+		if (!alertQueue.isEmpty())
+		{
+			flushAlerts();
+		}
 	}
 
 	@Subscribe
 	public void onItemContainerChanged(ItemContainerChanged event)
 	{
+		// Bursts within one tick (gear switches, combo eats) are diffed once in onPostClientTick
 		int containerId = event.getContainerId();
 		if (containerId == InventoryID.INVENTORY.getId())
 		{
-			consumptionDetector.handleInventoryChange(event.getItemContainer(), this::handleItemConsumed);
+			inventoryDirty = true;
 			return;
 		}
 
 		if (containerId == InventoryID.EQUIPMENT.getId())
 		{
-			durabilityTracker.handleEquipmentChange(event.getItemContainer());
+			equipmentDirty = true;
+			return;
+		}
+
+		// Read once when the bank closes rather than after every deposit and withdrawal
+		if (containerId == InventoryID.BANK.getId())
+		{
+			bankDirty = supplyIncludeBank;
 		}
 	}
 
 	@Subscribe
-	public void onMenuOptionClicked(MenuOptionClicked event)
+	public void onPostClientTick(PostClientTick event)
 	{
-		if (!config.restrictBrokenEquip())
+		if (inventoryDirty)
+		{
+			inventoryDirty = false;
+			consumptionDetector.handleInventoryChange(client.getItemContainer(InventoryID.INVENTORY), client.getTickCount(), consumptionHandler);
+		}
+
+		if (equipmentDirty)
+		{
+			equipmentDirty = false;
+			durabilityTracker.handleEquipmentChange(client.getItemContainer(InventoryID.EQUIPMENT));
+		}
+	}
+
+	@Subscribe
+	public void onMenuEntryAdded(MenuEntryAdded event)
+	{
+		int type = event.getType();
+		if (type != CC_OP && type != CC_OP_LOW_PRIORITY)
 		{
 			return;
 		}
 
-		String option = Text.removeTags(event.getMenuOption());
-		if (!EQUIP_OPTIONS.contains(option))
+		if (!restrictBrokenEquip || !durabilityTracker.isBroken(event.getMenuEntry().getItemId()))
 		{
 			return;
 		}
 
-		if (!EQUIP_ACTIONS.contains(event.getMenuAction()))
+		if (EQUIP_OPTIONS.contains(Text.removeTags(event.getOption())))
+		{
+			event.getMenuEntry().setDeprioritized(true);
+		}
+	}
+
+	@Subscribe
+	public void onMenuOptionClicked(MenuOptionClicked event)
+	{
+		int type = event.getMenuAction().getId();
+		if (type != CC_OP && type != CC_OP_LOW_PRIORITY)
 		{
 			return;
 		}
@@ -163,78 +351,433 @@ public class RealismPlugin extends Plugin
 			return;
 		}
 
-		Double durability = durabilityTracker.getDurability(itemId);
-		if (durability != null && durability <= 0.0)
+		String option = Text.removeTags(event.getMenuOption());
+		if (CONSUME_OPTIONS.contains(option))
+		{
+			consumptionDetector.recordConsumeClick(itemId, client.getTickCount());
+			return;
+		}
+
+		// Broken equip entries are already deprioritised, this catches an explicit right-click equip
+		if (restrictBrokenEquip && durabilityTracker.isBroken(itemId) && EQUIP_OPTIONS.contains(option))
 		{
 			event.consume();
-			sendMessage(config.durabilityBrokenMessage(), Color.RED);
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", AlertQueue.CRITICAL_TAG + config.durabilityBrokenMessage(), null);
+		}
+	}
+
+	@Subscribe
+	public void onWidgetLoaded(WidgetLoaded event)
+	{
+		int index = suspendInterfaceIndex(event.getGroupId());
+		if (index < 0)
+		{
+			return;
+		}
+		openSuspendInterfaces |= 1 << index;
+		consumptionDetector.suspend();
+	}
+
+	@Subscribe
+	public void onWidgetClosed(WidgetClosed event)
+	{
+		int index = suspendInterfaceIndex(event.getGroupId());
+		if (index < 0 || (openSuspendInterfaces & (1 << index)) == 0)
+		{
+			return;
+		}
+		openSuspendInterfaces &= ~(1 << index);
+		if (event.getGroupId() == InterfaceID.BANK && bankDirty)
+		{
+			bankDirty = false;
+			bankSnapshot.update(client.getItemContainer(InventoryID.BANK));
+		}
+		if (openSuspendInterfaces == 0)
+		{
+			consumptionDetector.resume(client.getItemContainer(InventoryID.INVENTORY));
+		}
+	}
+
+	@Subscribe
+	public void onCommandExecuted(CommandExecuted event)
+	{
+		String[] arguments = event.getArguments();
+		if (!"realism".equalsIgnoreCase(event.getCommand()) || arguments.length == 0 || !"export".equalsIgnoreCase(arguments[0]))
+		{
+			return;
+		}
+
+		if (!historyExporter.tryBegin())
+		{
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "A Realism export is already running.", null);
+			return;
+		}
+
+		boolean binary = arguments.length > 1 && ("bin".equalsIgnoreCase(arguments[1]) || "binary".equalsIgnoreCase(arguments[1]));
+		historyExporter.snapshot(meters, history, consumptionLog);
+		Path directory = RuneLite.RUNELITE_DIR.toPath().resolve("realism");
+		try
+		{
+			executor.execute(() ->
+			{
+				String message;
+				try
+				{
+					message = "Realism history exported to " + historyExporter.write(directory, binary);
+				}
+				catch (IOException e)
+				{
+					message = "Realism history export failed: " + e.getMessage();
+				}
+				String result = message;
+				clientThread.invokeLater(() -> client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", result, null));
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			historyExporter.end();
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "Realism history export could not be started.", null);
 		}
 	}
 
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged event)
 	{
-		if (event.getGameState() == GameState.LOGGED_IN)
+		GameState state = event.getGameState();
+		if (state == GameState.LOGIN_SCREEN || state == GameState.HOPPING)
+		{
+			openSuspendInterfaces = 0;
+			consumptionDetector.reset();
+			if (state == GameState.LOGIN_SCREEN)
+			{
+				// The next login may be a different account with a different bank
+				bankDirty = false;
+				bankSnapshot.clear();
+			}
+			return;
+		}
+
+		if (state == GameState.LOGGED_IN)
 		{
+			inventoryDirty = false;
+			equipmentDirty = false;
 			resetState();
 			updateInventorySnapshot();
 			updateEquipmentSnapshot();
 		}
 	}
 
-	double getHunger()
+	MeterRegistry getMeters()
 	{
-		return hunger.getValue();
+		return meters;
 	}
 
-	double getThirst()
+	BufferedImage getIconForMeter(int meter)
 	{
-		return thirst.getValue();
+		ensureIcons();
+		return meter < icons.length ? icons[meter] : null;
 	}
 
-	double getAverageDurability()
+	MeterHistory getHistory()
 	{
-		return durabilityTracker.getAverageDurability();
+		return history;
 	}
 
-	BufferedImage getIconForMeter(RealismOrbOverlay.MeterType type)
+	boolean isShowSparklines()
 	{
-		ensureIcons();
-		switch (type)
-		{
-			case HUNGER:
-				return hungerIcon;
-			case THIRST:
-				return thirstIcon;
-			case DURABILITY:
-				return durabilityIcon;
-			default:
-				return null;
-		}
+		return showSparklines;
 	}
 
-	Color getColourForMeter(RealismOrbOverlay.MeterType type)
+	MeterForecast getForecast()
 	{
-		switch (type)
-		{
-			case HUNGER:
-				return config.hungerColour();
-			case THIRST:
-				return config.thirstColour();
-			case DURABILITY:
-				return config.durabilityColour();
-			default:
-				return Color.WHITE;
-		}
+		return forecast;
+	}
+
+	DurabilityTracker getDurabilityTracker()
+	{
+		return durabilityTracker;
+	}
+
+	boolean isShowDurabilityBars()
+	{
+		return showDurabilityBars;
+	}
+
+	String getTooltip(int meter)
+	{
+		String forecastText = forecast.getTooltip(meter);
+		return meter == durabilityMeter ? durabilityTooltip.get(forecastText) : forecastText;
+	}
+
+	boolean isShowForecast()
+	{
+		return showForecast;
+	}
+
+	// 0 when no vignette should be drawn, up to StarvationOverlay.INTENSITY_STEPS at empty
+	int getVignetteStep()
+	{
+		return vignetteStep;
+	}
+
+	boolean isHideFullMeters()
+	{
+		return hideFullMeters;
+	}
+
+	float getOrbScale()
+	{
+		return orbScale;
+	}
+
+	RealismConfig.OrbLayout getOrbLayout()
+	{
+		return orbLayout;
+	}
+
+	int getLayoutRevision()
+	{
+		return layoutRevision;
 	}
 
 	private void resetState()
 	{
-		hunger.reset();
-		thirst.reset();
+		meters.reset();
+		vignetteStep = 0;
+		forecast.reset();
+		alertLimiter.reset();
+		alertQueue.clear();
 		durabilityTracker.reset();
 	}
 
+	private void applyConfig()
+	{
+		configureMeter(
+			hungerMeter,
+			drainTicks(config.hungerDrainRate()),
+			config.showHunger(),
+			config.hungerColour(),
+			Color.ORANGE,
+			hungerIconItemId(config.hungerIcon()),
+			config.hungerLowThreshold(),
+			config.hungerLowMessage(),
+			config.hungerCriticalMessage(),
+			config.notifyHunger(),
+			config.hungerExtraThresholds()
+		);
+		configureMeter(
+			thirstMeter,
+			drainTicks(config.thirstDrainRate()),
+			config.showThirst(),
+			config.thirstColour(),
+			Color.CYAN,
+			ItemID.VIAL_OF_WATER,
+			config.thirstLowThreshold(),
+			config.thirstLowMessage(),
+			config.thirstCriticalMessage(),
+			config.notifyThirst(),
+			config.thirstExtraThresholds()
+		);
+		// Durability is drained per item by the tracker, so its meter only mirrors the result
+		configureMeter(
+			durabilityMeter,
+			0,
+			config.showDurability(),
+			config.durabilityColour(),
+			Color.YELLOW,
+			ItemID.IRON_FULL_HELM,
+			config.durabilityLowThreshold(),
+			config.durabilityLowMessage(),
+			config.durabilityBrokenMessage(),
+			config.notifyDurability(),
+			config.durabilityExtraThresholds()
+		);
+		durabilityTracker.setDrainTicks(drainTicks(config.durabilityDrainRate()));
+
+		regionModifiers.setModifier(RegionModifiers.ZONE_DESERT, thirstMeter, config.desertThirstModifier());
+		regionModifiers.setModifier(RegionModifiers.ZONE_WILDERNESS, hungerMeter, config.wildernessHungerModifier());
+
+		Map<String, DrainRules.Expression> compiled = DrainRules.compile(config.drainRules());
+		drainRules = new DrainRules.Expression[meters.size()];
+		hasDrainRules = false;
+		for (int meter = 0; meter < meters.size(); meter++)
+		{
+			// Durability drains through the tracker rather than the registry, so a rule for it would never apply
+			if (meter != durabilityMeter)
+			{
+				drainRules[meter] = compiled.get(meters.getName(meter).toLowerCase());
+				hasDrainRules |= drainRules[meter] != null;
+			}
+		}
+		applyRegionModifiers();
+
+		restrictBrokenEquip = config.restrictBrokenEquip();
+		alertHysteresisUnits = config.alertHysteresis() * FixedPoint.UNITS_PER_PERCENT;
+		historySampleInterval = config.historySampleInterval();
+		showSparklines = config.showSparklines();
+		showForecast = config.showForecast();
+		showDurabilityBars = config.showDurabilityBars();
+		hideFullMeters = config.hideFullMeters();
+		vignetteThresholdUnits = config.showVignette() ? config.vignetteThreshold() * FixedPoint.UNITS_PER_PERCENT : 0;
+		vignetteStep = vignetteStep(Math.min(meters.getUnits(hungerMeter), meters.getUnits(thirstMeter)));
+		orbScale = config.orbScale() / 100f;
+		orbLayout = config.orbLayout();
+		// Any config change may move or resize the orbs, so the overlay re-lays them out once
+		layoutRevision++;
+		if (supplyIncludeBank != config.supplyIncludeBank())
+		{
+			supplyIncludeBank = config.supplyIncludeBank();
+			// Enabling picks up the bank when it next changes and closes; disabling removes it from the totals now
+			bankDirty = false;
+			bankSnapshot.clear();
+		}
+		alertLimiter.configure(config.alertBurst(), config.alertCooldown() * 1000 / Constants.GAME_TICK_LENGTH);
+		idleGraceClientTicks = config.pauseWhenIdle()
+			? config.idleGracePeriod() * 1000 / Constants.CLIENT_TICK_LENGTH
+			: Integer.MAX_VALUE;
+	}
+
+	private boolean isIdle()
+	{
+		// Input idle counters are plain int reads, so the player is only inspected once input has stopped
+		int inputIdleTicks = Math.min(client.getKeyboardIdleTicks(), client.getMouseIdleTicks());
+		if (inputIdleTicks < idleGraceClientTicks)
+		{
+			idleLocation = null;
+			return false;
+		}
+
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return false;
+		}
+
+		WorldPoint location = player.getWorldLocation();
+		boolean moved = !location.equals(idleLocation);
+		idleLocation = location;
+		return !moved && player.getAnimation() == AnimationID.IDLE;
+	}
+
+	private void updateRegion()
+	{
+		Player player = client.getLocalPlayer();
+		if (player == null)
+		{
+			return;
+		}
+
+		int regionId = WorldPoint.fromLocalInstance(client, player.getLocalLocation()).getRegionID();
+		if (regionId == currentRegionId)
+		{
+			return;
+		}
+		currentRegionId = regionId;
+
+		int zone = RegionModifiers.getZone(regionId);
+		if (zone != currentZone)
+		{
+			currentZone = zone;
+			applyRegionModifiers();
+		}
+	}
+
+	private void applyRegionModifiers()
+	{
+		for (int meter = 0; meter < meters.size(); meter++)
+		{
+			// Meters with a drain rule fold regionMod into the rule every tick instead
+			if (drainRules[meter] == null)
+			{
+				meters.setDrainModifier(meter, regionModifiers.getModifier(currentZone, meter) * 100);
+			}
+		}
+	}
+
+	private void applyDrainRules()
+	{
+		Player player = client.getLocalPlayer();
+		ruleVariables[DrainRules.VAR_BASE] = 1.0;
+		ruleVariables[DrainRules.VAR_IN_COMBAT] = player != null && player.getInteracting() != null ? 1.0 : 0.0;
+		ruleVariables[DrainRules.VAR_RUN_ENERGY] = client.getEnergy() / 100.0;
+		ruleVariables[DrainRules.VAR_WEIGHT] = client.getWeight();
+
+		for (int meter = 0; meter < drainRules.length; meter++)
+		{
+			DrainRules.Expression rule = drainRules[meter];
+			if (rule == null)
+			{
+				continue;
+			}
+			ruleVariables[DrainRules.VAR_REGION_MOD] = regionModifiers.getModifier(currentZone, meter) / 100.0;
+			double multiplier = rule.evaluate(ruleVariables);
+			int modifier = multiplier > 0.0
+				? (int) Math.min(MAX_DRAIN_MODIFIER, Math.round(multiplier * MeterRegistry.DRAIN_MODIFIER_SCALE))
+				: 0;
+			meters.setDrainModifier(meter, modifier);
+		}
+	}
+
+	private void configureMeter(
+		int meter,
+		int drainTicks,
+		boolean visible,
+		Color colour,
+		Color lowColour,
+		int iconItemId,
+		int lowThreshold,
+		String lowMessage,
+		String criticalMessage,
+		boolean notifyDesktop,
+		String extraThresholds
+	)
+	{
+		meters.setDrainTicks(meter, drainTicks);
+		meters.setFlag(meter, MeterRegistry.FLAG_VISIBLE, visible);
+		if (config.colourGradient())
+		{
+			meters.setColours(meter, colour, config.warningColour(), config.criticalColour(), lowThreshold);
+		}
+		else
+		{
+			meters.setColours(meter, colour, colour, colour, lowThreshold);
+		}
+		meters.setIconItemId(meter, iconItemId);
+		meters.setThresholds(meter, ThresholdLevels.build(lowThreshold, lowMessage, lowColour, criticalMessage, notifyDesktop, extraThresholds), alertUnits(meter));
+	}
+
+	private void onItemConsumed(int itemId, int count)
+	{
+		consumptionLog.record(client.getTickCount(), itemId, count);
+		consumptionDispatcher.onItemConsumed(itemId, count);
+	}
+
+	private boolean buildDoseFamilies()
+	{
+		if (client.getGameState().getState() < GameState.LOGIN_SCREEN.getState())
+		{
+			return false;
+		}
+		if (!doseFamilies.isBuilt())
+		{
+			doseFamilies.build(client);
+			supplyIndex.invalidate();
+		}
+		return true;
+	}
+
+	private static int suspendInterfaceIndex(int groupId)
+	{
+		for (int i = 0; i < SUSPEND_INTERFACES.length; i++)
+		{
+			if (SUSPEND_INTERFACES[i] == groupId)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	private void updateInventorySnapshot()
 	{
 		consumptionDetector.initializeSnapshot(client.getItemContainer(InventoryID.INVENTORY));
@@ -245,26 +788,62 @@ public class RealismPlugin extends Plugin
 		durabilityTracker.handleEquipmentChange(client.getItemContainer(InventoryID.EQUIPMENT));
 	}
 
-	private void handleItemConsumed(int itemId, int count)
+	// Cheap table checks first, the composition lookup only for items neither table knows
+	private boolean isConsumable(int itemId)
 	{
-		ItemStats stats = itemManager.getItemStats(itemId, false);
-		int healAmount = stats != null ? Math.max(0, stats.getHeal()) : 0;
-		if (healAmount > 0)
+		if (doseFamilies.getFamily(itemId) != 0
+			|| nutritionData.getHunger(itemId) != NutritionData.UNKNOWN_HUNGER
+			|| nutritionData.getThirst(itemId) != NutritionData.UNKNOWN_THIRST)
 		{
-			double restore = healAmount * config.foodHealWeight() * count;
-			hunger.restore(restore);
+			return true;
 		}
 
 		ItemComposition comp = itemManager.getItemComposition(itemId);
-		if (comp != null)
+		if (comp == null || comp.getInventoryActions() == null)
+		{
+			return false;
+		}
+		for (String action : comp.getInventoryActions())
 		{
-			String name = Text.removeTags(comp.getName()).toLowerCase();
-			if (isBeverage(name))
+			if (action != null && CONSUME_OPTIONS.contains(action))
 			{
-				int restore = config.potionRestore() * count;
-				thirst.restore(restore);
+				return true;
 			}
 		}
+		return false;
+	}
+
+	private double resolveHunger(int itemId)
+	{
+		double amount;
+		int hungerRestore = nutritionData.getHunger(itemId);
+		if (hungerRestore != NutritionData.UNKNOWN_HUNGER)
+		{
+			amount = hungerRestore;
+		}
+		else
+		{
+			ItemStats stats = itemManager.getItemStats(itemId, false);
+			int healAmount = stats != null ? Math.max(0, stats.getHeal()) : 0;
+			amount = healAmount * config.foodHealWeight();
+		}
+		return amount - nutritionData.getPoison(itemId) * config.poisonPenalty();
+	}
+
+	private double resolveThirst(int itemId)
+	{
+		int thirstRestore = nutritionData.getThirst(itemId);
+		if (thirstRestore != NutritionData.UNKNOWN_THIRST)
+		{
+			return thirstRestore;
+		}
+
+		ItemComposition comp = itemManager.getItemComposition(itemId);
+		if (comp != null && isBeverage(Text.removeTags(comp.getName()).toLowerCase()))
+		{
+			return config.potionRestore();
+		}
+		return 0.0;
 	}
 
 	private boolean isBeverage(String name)
@@ -286,170 +865,168 @@ public class RealismPlugin extends Plugin
 			|| name.contains("waterskin");
 	}
 
-	private void checkHungerThresholds()
+	private int alertUnits(int meter)
 	{
-		checkMeterThresholds(
-			hunger,
-			config.hungerLowThreshold(),
-			config.hungerLowMessage(),
-			config.hungerCriticalMessage(),
-			Color.ORANGE,
-			Color.RED,
-			config.notifyHunger()
-		);
+		return meter == durabilityMeter ? durabilityTracker.getMinimumUnits() : meters.getUnits(meter);
 	}
 
-	private void checkThirstThresholds()
+	private void checkMeterThresholds(int meter, int units)
 	{
-		checkMeterThresholds(
-			thirst,
-			config.thirstLowThreshold(),
-			config.thirstLowMessage(),
-			config.thirstCriticalMessage(),
-			Color.CYAN,
-			Color.RED,
-			config.notifyThirst()
-		);
+		ThresholdLevels levels = meters.getThresholds(meter);
+		int alerted = meters.getAlertedLevel(meter);
+		int crossed = levels.firstCrossed(units);
+		if (crossed < alerted)
+		{
+			// Only the most severe of the levels passed since the last check is announced
+			sendAlert(meter, levels.getMessage(crossed), levels.getColourTag(crossed), levels.isNotify(crossed));
+			meters.setAlertedLevel(meter, crossed);
+			return;
+		}
+
+		// Levels only re-arm once the meter climbs past them plus the hysteresis band
+		if (alerted < levels.size() && units > levels.getUnits(alerted) + alertHysteresisUnits)
+		{
+			meters.setAlertedLevel(meter, levels.firstCrossed(units - alertHysteresisUnits));
+		}
 	}
 
-	private void checkMeterThresholds(
-		MeterState meter,
-		int lowThreshold,
-		String lowMessage,
-		String criticalMessage,
-		Color lowColour,
-		Color criticalColour,
-		boolean notifyDesktop
-	)
+	private String getItemName(int itemId)
 	{
-		double value = meter.getValue();
-		if (value <= 0.0)
+		return itemNames.computeIfAbsent(itemId, id -> itemManager.getItemComposition(id).getName());
+	}
+
+	private int vignetteStep(int units)
+	{
+		if (units >= vignetteThresholdUnits)
 		{
-			if (!meter.isCritSent())
-			{
-				sendMessage(criticalMessage, criticalColour);
-				if (notifyDesktop)
-				{
-					notifier.notify(criticalMessage);
-				}
-				meter.setCritSent(true);
-				meter.setLowSent(true);
-			}
-			return;
+			return 0;
 		}
+		long severity = (long) (vignetteThresholdUnits - units) * StarvationOverlay.INTENSITY_STEPS;
+		return (int) ((severity + vignetteThresholdUnits - 1) / vignetteThresholdUnits);
+	}
 
-		if (value <= lowThreshold)
+	private void updateForecast(int meter, int units)
+	{
+		// The forecast targets the next alert level below the current value
+		ThresholdLevels levels = meters.getThresholds(meter);
+		int next = levels.firstCrossed(units) - 1;
+		int levelUnits = next > 0 ? levels.getUnits(next) : 0;
+		if (meter == durabilityMeter)
 		{
-			if (!meter.isLowSent())
-			{
-				sendMessage(lowMessage, lowColour);
-				if (notifyDesktop)
-				{
-					notifier.notify(lowMessage);
-				}
-				meter.setLowSent(true);
-			}
-			meter.setCritSent(false);
+			long numerator = durabilityTracker.size() > 0 ? durabilityTracker.getRateNumerator() : 0;
+			forecast.update(meter, meters.getName(meter), units, levelUnits, 0, numerator, durabilityTracker.getRateDenominator());
 			return;
 		}
-
-		meter.setLowSent(false);
-		meter.setCritSent(false);
+		long supplyUnits = supplyIndex.getTotalUnits(meter);
+		forecast.update(meter, meters.getName(meter), units, levelUnits, supplyUnits, meters.getRateNumerator(meter), meters.getRateDenominator(meter));
 	}
 
-	private void checkDurabilityThresholds()
+	private void sendAlert(int meter, String message, String colourTag, boolean notifyDesktop)
 	{
-		double minDurability = durabilityTracker.getMinimumDurability();
-		int lowThreshold = config.durabilityLowThreshold();
-		if (minDurability <= 0.0)
+		int tick = client.getTickCount();
+		if (alertLimiter.tryAcquire(meter, AlertLimiter.CHANNEL_CHAT, tick))
 		{
-			if (!durabilityTracker.isCritSent())
-			{
-				sendMessage(config.durabilityBrokenMessage(), Color.RED);
-				if (config.notifyDurability())
-				{
-					notifier.notify(config.durabilityBrokenMessage());
-				}
-				durabilityTracker.setCritSent(true);
-				durabilityTracker.setLowSent(true);
-			}
-			return;
+			alertQueue.addChat(colourTag, message);
 		}
+		if (notifyDesktop && alertLimiter.tryAcquire(meter, AlertLimiter.CHANNEL_NOTIFY, tick))
+		{
+			alertQueue.addNotification(message);
+		}
+	}
 
-		if (minDurability <= lowThreshold)
+	private void flushAlerts()
+	{
+		// Every alert from this tick shares one chat line and one desktop notification
+		String chat = alertQueue.drainChat();
+		if (chat != null)
 		{
-			if (!durabilityTracker.isLowSent())
-			{
-				sendMessage(config.durabilityLowMessage(), Color.YELLOW);
-				if (config.notifyDurability())
-				{
-					notifier.notify(config.durabilityLowMessage());
-				}
-				durabilityTracker.setLowSent(true);
-			}
-			durabilityTracker.setCritSent(false);
-			return;
+			client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", chat, null);
 		}
 
-		durabilityTracker.setLowSent(false);
-		durabilityTracker.setCritSent(false);
+		String notification = alertQueue.drainNotifications();
+		if (notification != null)
+		{
+			executor.execute(() -> notifier.notify(notification));
+		}
 	}
 
-	private void sendMessage(String message, Color colour)
+	private static int drainTicks(int drainMinutes)
 	{
-		String colourTag = String.format("<col=%06x>", colour.getRGB() & 0xFFFFFF);
-		client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", colourTag + message, null);
+		return Math.max(0, drainMinutes) * TICKS_PER_MINUTE;
 	}
 
-	private double perTickLoss(int drainMinutes)
+	private static int hungerIconItemId(RealismConfig.HungerIcon iconSetting)
 	{
-		if (drainMinutes <= 0)
+		switch (iconSetting)
 		{
-			return 0.0;
+			case FISH:
+				return ItemID.TROUT;
+			case CABBAGE:
+				return ItemID.CABBAGE;
+			case MEAT:
+			default:
+				return ItemID.COOKED_MEAT;
 		}
-		return 100.0 / (drainMinutes * (double) TICKS_PER_MINUTE);
 	}
 
 	private void ensureIcons()
 	{
-		RealismConfig.HungerIcon iconSetting = config.hungerIcon();
-		if (iconsDirty || hungerIcon == null || cachedHungerIcon != iconSetting)
+		if (!iconsDirty && icons.length == meters.size())
 		{
-			cachedHungerIcon = iconSetting;
-			int itemId;
-			switch (iconSetting)
-			{
-				case FISH:
-					itemId = ItemID.TROUT;
-					break;
-				case CABBAGE:
-					itemId = ItemID.CABBAGE;
-					break;
-				case MEAT:
-				default:
-					itemId = ItemID.COOKED_MEAT;
-					break;
-			}
-			hungerIcon = spriteManager.getSprite(itemId, 0);
+			return;
 		}
 
-		if (iconsDirty || thirstIcon == null)
+		if (icons.length != meters.size())
 		{
-			thirstIcon = spriteManager.getSprite(ItemID.VIAL_OF_WATER, 0);
+			icons = new BufferedImage[meters.size()];
 		}
 
-		if (iconsDirty || durabilityIcon == null)
+		boolean missing = false;
+		for (int meter = 0; meter < icons.length; meter++)
 		{
-			durabilityIcon = spriteManager.getSprite(ItemID.IRON_FULL_HELM, 0);
+			icons[meter] = spriteManager.getSprite(meters.getIconItemId(meter), 0);
+			missing |= icons[meter] == null;
 		}
-
-		iconsDirty = hungerIcon == null || thirstIcon == null || durabilityIcon == null;
+		iconsDirty = missing;
 	}
 
 	private void invalidateIcons()
 	{
 		iconsDirty = true;
 	}
+
+	private static final class MeterConsumption implements ConsumptionDispatcher.Handler
+	{
+		private final MeterRegistry meters;
+		private final int meter;
+		private final IntToDoubleFunction resolver;
+
+		private MeterConsumption(MeterRegistry meters, int meter, IntToDoubleFunction resolver)
+		{
+			this.meters = meters;
+			this.meter = meter;
+			this.resolver = resolver;
+		}
+
+		@Override
+		public double resolve(int itemId)
+		{
+			return resolver.applyAsDouble(itemId);
+		}
+
+		@Override
+		public void apply(double amount, int count)
+		{
+			if (amount < 0.0)
+			{
+				meters.drain(meter, -amount * count);
+			}
+			else
+			{
+				meters.restore(meter, amount * count);
+			}
+		}
+	}
 }package com.realism;
 
 import com.google.common.collect.ImmutableSet;
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Arrays;
+
+class RegionModifiers
+{
+	static final int ZONE_NONE = 0;
+	static final int ZONE_DESERT = 1;
+	static final int ZONE_WILDERNESS = 2;
+
+	private static final int ZONE_COUNT = 3;
+	private static final int REGION_COUNT = 1 << 16;
+	private static final int[] TOMBS_OF_AMASCUT_REGIONS = {
+		13454, 14160, 14162, 14164, 14672, 14674, 14676, 15184, 15186, 15188, 15696, 15698, 15700
+	};
+	private static final byte[] ZONE_BY_REGION = buildZones();
+
+	private final int[][] percentByZone;
+
+	RegionModifiers(int meterCount)
+	{
+		percentByZone = new int[ZONE_COUNT][meterCount];
+		for (int[] percents : percentByZone)
+		{
+			Arrays.fill(percents, 100);
+		}
+	}
+
+	static int getZone(int regionId)
+	{
+		return regionId >= 0 && regionId < REGION_COUNT ? ZONE_BY_REGION[regionId] : ZONE_NONE;
+	}
+
+	void setModifier(int zone, int meter, int percent)
+	{
+		percentByZone[zone][meter] = Math.max(0, percent);
+	}
+
+	int getModifier(int zone, int meter)
+	{
+		return percentByZone[zone][meter];
+	}
+
+	private static byte[] buildZones()
+	{
+		byte[] zones = new byte[REGION_COUNT];
+		// Kharidian Desert south of the Shantay Pass, x 3136-3519 and y 2688-3071
+		fill(zones, 49, 54, 42, 47, ZONE_DESERT);
+		for (int regionId : TOMBS_OF_AMASCUT_REGIONS)
+		{
+			zones[regionId] = ZONE_DESERT;
+		}
+		// Wilderness, x 2944-3391 and y 3520-3967
+		fill(zones, 46, 52, 55, 61, ZONE_WILDERNESS);
+		return zones;
+	}
+
+	private static void fill(byte[] zones, int minRegionX, int maxRegionX, int minRegionY, int maxRegionY, int zone)
+	{
+		for (int regionX = minRegionX; regionX <= maxRegionX; regionX++)
+		{
+			for (int regionY = minRegionY; regionY <= maxRegionY; regionY++)
+			{
+				zones[regionX << 8 | regionY] = (byte) zone;
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RadialGradientPaint;
+import java.awt.image.BufferedImage;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.OverlayPriority;
+
+@Singleton
+public class StarvationOverlay extends Overlay
+{
+	static final int INTENSITY_STEPS = 8;
+
+	private static final int MAX_EDGE_ALPHA = 200;
+	private static final float[] GRADIENT_STOPS = {0f, 0.55f, 1f};
+
+	private final RealismPlugin plugin;
+	private final Client client;
+	private BufferedImage vignette;
+	private int vignetteStep;
+
+	@Inject
+	public StarvationOverlay(RealismPlugin plugin, Client client)
+	{
+		this.plugin = plugin;
+		this.client = client;
+		setPosition(OverlayPosition.DYNAMIC);
+		setPriority(OverlayPriority.LOW);
+		setLayer(OverlayLayer.ABOVE_SCENE);
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		int step = plugin.getVignetteStep();
+		if (step == 0 || client.getGameState() != GameState.LOGGED_IN)
+		{
+			return null;
+		}
+
+		int width = client.getViewportWidth();
+		int height = client.getViewportHeight();
+		if (width <= 0 || height <= 0)
+		{
+			return null;
+		}
+
+		// The gradient is only painted when the viewport is resized or the severity moves to another step
+		if (vignette == null || vignette.getWidth() != width || vignette.getHeight() != height || vignetteStep != step)
+		{
+			renderVignette(width, height, step);
+		}
+		graphics.drawImage(vignette, client.getViewportXOffset(), client.getViewportYOffset(), null);
+		return null;
+	}
+
+	void invalidate()
+	{
+		vignette = null;
+	}
+
+	private void renderVignette(int width, int height, int step)
+	{
+		if (vignette == null || vignette.getWidth() != width || vignette.getHeight() != height)
+		{
+			vignette = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		vignetteStep = step;
+
+		int edgeAlpha = MAX_EDGE_ALPHA * step / INTENSITY_STEPS;
+		Color[] colours = {
+			new Color(0, 0, 0, 0),
+			new Color(40, 0, 0, edgeAlpha / 3),
+			new Color(40, 0, 0, edgeAlpha)
+		};
+		float radius = (float) Math.hypot(width, height) / 2f;
+
+		Graphics2D g = vignette.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.setPaint(new RadialGradientPaint(width / 2f, height / 2f, radius, GRADIENT_STOPS, colours));
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+class SupplyIndex implements ItemSnapshot.QuantityListener
+{
+	private final DoseFamilyIndex doseFamilies;
+	private final IntPredicate consumable;
+	private final IntToDoubleFunction[] resolvers;
+	// Restore held per meter in units, so adding and removing the same items always cancels exactly
+	private final long[] totals;
+	// Shared by every item that cannot be consumed, it is only ever read
+	private final long[] noRestore;
+	private final Map<Integer, Integer> quantities = new HashMap<>();
+	private final Map<Integer, long[]> restoreByItemId = new HashMap<>();
+	// Changes to items whose restore is not cached yet, resolved on the client thread at next read
+	private final Map<Integer, Integer> unresolvedDeltas = new HashMap<>();
+	private boolean stale;
+
+	// The consumable check runs before any resolver so most bank items never reach the slower lookups
+	SupplyIndex(DoseFamilyIndex doseFamilies, IntPredicate consumable, int meterCount)
+	{
+		this.doseFamilies = doseFamilies;
+		this.consumable = consumable;
+		this.resolvers = new IntToDoubleFunction[meterCount];
+		this.totals = new long[meterCount];
+		this.noRestore = new long[meterCount];
+	}
+
+	// The resolver gives the percent restored by consuming one portion of a canonical item
+	void register(int meter, IntToDoubleFunction resolver)
+	{
+		resolvers[meter] = resolver;
+		invalidate();
+	}
+
+	@Override
+	public void onQuantityChanged(int itemId, int delta)
+	{
+		int quantity = quantities.getOrDefault(itemId, 0) + delta;
+		if (quantity > 0)
+		{
+			quantities.put(itemId, quantity);
+		}
+		else
+		{
+			quantities.remove(itemId);
+		}
+
+		if (stale)
+		{
+			return;
+		}
+		long[] restore = restoreByItemId.get(itemId);
+		if (restore == null)
+		{
+			unresolvedDeltas.merge(itemId, delta, Integer::sum);
+			return;
+		}
+		addRestore(restore, delta);
+	}
+
+	long getTotalUnits(int meter)
+	{
+		if (stale)
+		{
+			retotal();
+		}
+		else if (!unresolvedDeltas.isEmpty())
+		{
+			for (Map.Entry<Integer, Integer> entry : unresolvedDeltas.entrySet())
+			{
+				addRestore(restoreByItemId.computeIfAbsent(entry.getKey(), this::resolve), entry.getValue());
+			}
+			unresolvedDeltas.clear();
+		}
+		return totals[meter];
+	}
+
+	// Restore values depend on nutrition data and config, so they are re-resolved on the client thread at next use
+	void invalidate()
+	{
+		stale = true;
+	}
+
+	private void retotal()
+	{
+		stale = false;
+		restoreByItemId.clear();
+		unresolvedDeltas.clear();
+		for (int meter = 0; meter < totals.length; meter++)
+		{
+			totals[meter] = 0;
+		}
+		for (Map.Entry<Integer, Integer> entry : quantities.entrySet())
+		{
+			addRestore(restoreByItemId.computeIfAbsent(entry.getKey(), this::resolve), entry.getValue());
+		}
+	}
+
+	private void addRestore(long[] restore, int quantity)
+	{
+		for (int meter = 0; meter < totals.length; meter++)
+		{
+			totals[meter] += restore[meter] * quantity;
+		}
+	}
+
+	void clear()
+	{
+		stale = false;
+		quantities.clear();
+		restoreByItemId.clear();
+		unresolvedDeltas.clear();
+		for (int meter = 0; meter < totals.length; meter++)
+		{
+			totals[meter] = 0;
+		}
+	}
+
+	private long[] resolve(int itemId)
+	{
+		if (!consumable.test(itemId))
+		{
+			return noRestore;
+		}
+		// Partly used potions and pies hold one consume per remaining portion, Waterskin(0) holds none
+		int portions = doseFamilies.getFamily(itemId) != 0 ? doseFamilies.getPortions(itemId) : 1;
+		if (portions <= 0)
+		{
+			return noRestore;
+		}
+		long[] restore = new long[totals.length];
+		int canonical = doseFamilies.getCanonicalItemId(itemId);
+		for (int meter = 0; meter < resolvers.length; meter++)
+		{
+			if (resolvers[meter] != null)
+			{
+				restore[meter] = Math.max(0, FixedPoint.toUnits(resolvers[meter].applyAsDouble(canonical))) * (long) portions;
+			}
+		}
+		return restore;
+	}
+}
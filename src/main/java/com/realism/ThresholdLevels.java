@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+final class ThresholdLevels
+{
+	private final int[] units;
+	private final String[] messages;
+	private final String[] colourTags;
+	private final boolean[] notify;
+
+	private static final class Level
+	{
+		private final String message;
+		private final String colourTag;
+		private final boolean notify;
+
+		private Level(String message, String colourTag, boolean notify)
+		{
+			this.message = message;
+			this.colourTag = colourTag;
+			this.notify = notify;
+		}
+	}
+
+	private ThresholdLevels(int[] units, String[] messages, String[] colourTags, boolean[] notify)
+	{
+		this.units = units;
+		this.messages = messages;
+		this.colourTags = colourTags;
+		this.notify = notify;
+	}
+
+	// Extra levels are "percent|message|#rrggbb|notify" entries separated by new lines or ';', trailing fields optional
+	static ThresholdLevels build(
+		int lowThreshold,
+		String lowMessage,
+		Color lowColour,
+		String criticalMessage,
+		boolean notifyDesktop,
+		String extraLevels
+	)
+	{
+		String lowTag = AlertQueue.colourTag(lowColour);
+		TreeMap<Integer, Level> levels = new TreeMap<>();
+		levels.put(0, new Level(criticalMessage, AlertQueue.CRITICAL_TAG, notifyDesktop));
+		levels.put(lowThreshold * FixedPoint.UNITS_PER_PERCENT, new Level(lowMessage, lowTag, notifyDesktop));
+
+		if (extraLevels != null)
+		{
+			for (String entry : extraLevels.split("[\\n;]"))
+			{
+				String[] fields = entry.split("\\|");
+				if (fields.length < 2 || fields[1].trim().isEmpty())
+				{
+					continue;
+				}
+				try
+				{
+					int percent = Integer.parseInt(fields[0].trim());
+					if (percent < 0 || percent > 100)
+					{
+						continue;
+					}
+					String tag = fields.length > 2 && !fields[2].trim().isEmpty()
+						? AlertQueue.colourTag(Color.decode(fields[2].trim()))
+						: lowTag;
+					boolean notifyLevel = fields.length > 3 ? Boolean.parseBoolean(fields[3].trim()) : notifyDesktop;
+					levels.put(percent * FixedPoint.UNITS_PER_PERCENT, new Level(fields[1].trim(), tag, notifyLevel));
+				}
+				catch (NumberFormatException e)
+				{
+					// Ignore a malformed level and keep the rest
+				}
+			}
+		}
+
+		int size = levels.size();
+		int[] units = new int[size];
+		String[] messages = new String[size];
+		String[] colourTags = new String[size];
+		boolean[] notify = new boolean[size];
+		int i = 0;
+		for (int key : levels.keySet())
+		{
+			Level level = levels.get(key);
+			units[i] = key;
+			messages[i] = level.message;
+			colourTags[i] = level.colourTag;
+			notify[i] = level.notify;
+			i++;
+		}
+		return new ThresholdLevels(units, messages, colourTags, notify);
+	}
+
+	int size()
+	{
+		return units.length;
+	}
+
+	// Index of the lowest level at or above the value, i.e. the most severe level the value has crossed
+	int firstCrossed(int value)
+	{
+		int index = Arrays.binarySearch(units, value);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	int getUnits(int level)
+	{
+		return units[level];
+	}
+
+	String getMessage(int level)
+	{
+		return messages[level];
+	}
+
+	String getColourTag(int level)
+	{
+		return colourTags[level];
+	}
+
+	boolean isNotify(int level)
+	{
+		return notify[level];
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (!(o instanceof ThresholdLevels))
+		{
+			return false;
+		}
+		ThresholdLevels other = (ThresholdLevels) o;
+		return Arrays.equals(units, other.units)
+			&& Arrays.equals(messages, other.messages)
+			&& Arrays.equals(colourTags, other.colourTags)
+			&& Arrays.equals(notify, other.notify);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * Arrays.hashCode(units) + Arrays.hashCode(messages);
+	}
+}
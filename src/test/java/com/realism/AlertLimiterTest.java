@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class AlertLimiterTest
+{
+	private final AlertLimiter limiter = new AlertLimiter(2);
+
+	@Test
+	public void burstIsLimitedToCapacity()
+	{
+		limiter.configure(3, 100);
+		limiter.reset();
+
+		// A long idle spell still only allows a burst of capacity alerts
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+	}
+
+	@Test
+	public void refillsOneTokenPerInterval()
+	{
+		limiter.configure(3, 100);
+		limiter.reset();
+		for (int i = 0; i < 3; i++)
+		{
+			limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000);
+		}
+
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1099));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1100));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1100));
+
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1300));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1300));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1300));
+	}
+
+	@Test
+	public void fullBucketRestartsRefillOnNextAlert()
+	{
+		limiter.configure(1, 100);
+		limiter.reset();
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1050));
+
+		// Full again at 1100 and idle until 1150, so the next token is due at 1250 rather than 1200
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1150));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1249));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1250));
+	}
+
+	@Test
+	public void bucketsAreSeparatePerMeterAndChannel()
+	{
+		limiter.configure(1, 100);
+		limiter.reset();
+
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_NOTIFY, 1000));
+		assertTrue(limiter.tryAcquire(1, AlertLimiter.CHANNEL_CHAT, 1000));
+	}
+
+	@Test
+	public void zeroRefillTicksIsUnlimited()
+	{
+		limiter.configure(1, 0);
+		limiter.reset();
+
+		for (int i = 0; i < 10; i++)
+		{
+			assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		}
+	}
+
+	@Test
+	public void loweringCapacityDropsExtraTokens()
+	{
+		limiter.configure(3, 100);
+		limiter.reset();
+		limiter.configure(1, 100);
+
+		assertTrue(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+		assertFalse(limiter.tryAcquire(0, AlertLimiter.CHANNEL_CHAT, 1000));
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.runelite.api.ItemContainer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ConsumptionDetectorTest
+{
+	private static final int SHARK = 385;
+	private static final int LOBSTER = 379;
+
+	private final ConsumptionDetector detector = new ConsumptionDetector(new DoseFamilyIndex());
+	private final List<Integer> consumed = new ArrayList<>();
+
+	@Test
+	public void countsDecreaseOnLastTickOfWindow()
+	{
+		detector.initializeSnapshot(inventory(SHARK, 3));
+		detector.recordConsumeClick(SHARK, 10);
+		detector.handleInventoryChange(inventory(SHARK, 2), 13, (itemId, count) -> consumed.add(itemId));
+
+		assertEquals(Arrays.asList(SHARK), consumed);
+	}
+
+	@Test
+	public void ignoresDecreaseAfterWindow()
+	{
+		detector.initializeSnapshot(inventory(SHARK, 3));
+		detector.recordConsumeClick(SHARK, 10);
+		detector.handleInventoryChange(inventory(SHARK, 2), 14, (itemId, count) -> consumed.add(itemId));
+
+		assertEquals(0, consumed.size());
+	}
+
+	@Test
+	public void ignoresDecreaseWithoutClick()
+	{
+		detector.initializeSnapshot(inventory(SHARK, 3));
+		detector.handleInventoryChange(inventory(SHARK, 2), 10, (itemId, count) -> consumed.add(itemId));
+
+		assertEquals(0, consumed.size());
+	}
+
+	@Test
+	public void onlyCountsClickedItem()
+	{
+		detector.initializeSnapshot(inventory(SHARK, 3, LOBSTER, 2));
+		detector.recordConsumeClick(SHARK, 10);
+		detector.handleInventoryChange(inventory(SHARK, 2, LOBSTER, 1), 11, (itemId, count) -> consumed.add(itemId));
+
+		assertEquals(Arrays.asList(SHARK), consumed);
+	}
+
+	@Test
+	public void expiredClickDoesNotMatchLaterDecrease()
+	{
+		detector.initializeSnapshot(inventory(SHARK, 3));
+		detector.recordConsumeClick(SHARK, 10);
+		detector.handleInventoryChange(inventory(SHARK, 3), 14, (itemId, count) -> consumed.add(itemId));
+		detector.handleInventoryChange(inventory(SHARK, 2), 15, (itemId, count) -> consumed.add(itemId));
+
+		assertEquals(0, consumed.size());
+	}
+
+	@Test
+	public void suspendedChangesReportNetDeltaOnResume()
+	{
+		List<String> deltas = new ArrayList<>();
+		detector.setQuantityListener((itemId, delta) -> deltas.add(itemId + ":" + delta));
+		detector.initializeSnapshot(inventory(SHARK, 3));
+		deltas.clear();
+
+		detector.suspend();
+		detector.recordConsumeClick(SHARK, 10);
+		detector.handleInventoryChange(inventory(SHARK, 1), 10, (itemId, count) -> consumed.add(itemId));
+		detector.handleInventoryChange(inventory(SHARK, 2, LOBSTER, 5), 11, (itemId, count) -> consumed.add(itemId));
+		assertEquals(0, deltas.size());
+
+		detector.resume(inventory(SHARK, 2, LOBSTER, 5));
+
+		assertEquals(0, consumed.size());
+		assertEquals(2, deltas.size());
+		assertTrue(deltas.contains(SHARK + ":-1"));
+		assertTrue(deltas.contains(LOBSTER + ":5"));
+	}
+
+	// Pairs of item id and quantity, one pair per slot
+	private static ItemContainer inventory(int... slots)
+	{
+		return (ItemContainer) Proxy.newProxyInstance(
+			ItemContainer.class.getClassLoader(),
+			new Class<?>[]{ItemContainer.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "size":
+						return slots.length / 2;
+					case "getItemId":
+						return slots[(int) args[0] * 2];
+					case "getQuantity":
+						return slots[(int) args[0] * 2 + 1];
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			});
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class DrainRulesTest
+{
+	private final double[] variables = new double[DrainRules.VARIABLE_COUNT];
+
+	@Test
+	public void multiplicationBindsTighterThanAddition()
+	{
+		assertEquals(14.0, evaluate("2 + 3 * 4"), 0.0);
+		assertEquals(20.0, evaluate("(2 + 3) * 4"), 0.0);
+		assertEquals(1.0, evaluate("8 / 4 / 2"), 0.0);
+		assertEquals(3.0, evaluate("10 - 4 - 3"), 0.0);
+	}
+
+	@Test
+	public void unaryMinusAppliesToItsOperand()
+	{
+		variables[DrainRules.VAR_WEIGHT] = 5.0;
+		assertEquals(-5.0, evaluate("-weight"), 0.0);
+		assertEquals(-10.0, evaluate("-2 * weight"), 0.0);
+		assertEquals(5.0, evaluate("--weight"), 0.0);
+		assertEquals(3.0, evaluate("8 + -weight"), 0.0);
+		assertEquals(-3.0, evaluate("-(8 - weight)"), 0.0);
+	}
+
+	@Test
+	public void variablesAreReadOnEveryEvaluation()
+	{
+		DrainRules.Expression rule = DrainRules.compileExpression("base * (1 + 0.5*inCombat) * regionMod");
+		variables[DrainRules.VAR_BASE] = 1.0;
+		variables[DrainRules.VAR_REGION_MOD] = 2.0;
+		assertEquals(2.0, rule.evaluate(variables), 0.0);
+		variables[DrainRules.VAR_IN_COMBAT] = 1.0;
+		assertEquals(3.0, rule.evaluate(variables), 0.0);
+	}
+
+	@Test
+	public void foldsConstantSubexpressions()
+	{
+		DrainRules.Expression rule = DrainRules.compileExpression("2 * (3 + 4) - -1");
+		assertEquals("Constant", rule.getClass().getSimpleName());
+		// A folded rule never reads the variables array
+		assertEquals(15.0, rule.evaluate(null), 0.0);
+	}
+
+	@Test
+	public void dropsIdentityOperands()
+	{
+		variables[DrainRules.VAR_RUN_ENERGY] = 0.25;
+		DrainRules.Expression rule = DrainRules.compileExpression("(runEnergy + 0) * 1 / 1");
+		assertEquals(DrainRules.compileExpression("runEnergy").getClass(), rule.getClass());
+		assertEquals(0.25, rule.evaluate(variables), 0.0);
+	}
+
+	@Test
+	public void compileSkipsInvalidLines()
+	{
+		Map<String, DrainRules.Expression> rules = DrainRules.compile(
+			"Hunger = base * 2\n"
+				+ "thirst = base * (2\n"
+				+ "= base\n"
+				+ "stamina = speed * 2;"
+				+ "prayer = base 2;"
+				+ "no equals sign");
+
+		assertEquals(1, rules.size());
+		assertTrue(rules.containsKey("hunger"));
+		assertFalse(rules.containsKey("thirst"));
+		variables[DrainRules.VAR_BASE] = 1.5;
+		assertEquals(3.0, rules.get("hunger").evaluate(variables), 0.0);
+	}
+
+	@Test
+	public void compileAcceptsSemicolonsAndNull()
+	{
+		assertEquals(2, DrainRules.compile("hunger = base; thirst = base * 2").size());
+		assertTrue(DrainRules.compile(null).isEmpty());
+	}
+
+	private double evaluate(String source)
+	{
+		return DrainRules.compileExpression(source).evaluate(variables);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+public class IntIntMapTest
+{
+	// Eight slots, so four entries fit without a rehash
+	private final IntIntMap map = new IntIntMap(4);
+
+	@Test
+	public void removeShiftsWrappedChainBack()
+	{
+		int[] last = keysWithHome(map.capacity() - 1, 3, 1);
+		int first = keysWithHome(0, 1, last[2] + 1)[0];
+		map.put(last[0], 10);
+		map.put(last[1], 11);
+		map.put(last[2], 12);
+		// Home is slot 0 but the wrapped chain pushes it to slot 2
+		map.put(first, 20);
+		assertEquals(first, map.keyAt(2));
+
+		map.remove(last[0]);
+
+		assertEquals(3, map.size());
+		assertEquals(-1, map.get(last[0], -1));
+		assertEquals(11, map.get(last[1], -1));
+		assertEquals(12, map.get(last[2], -1));
+		assertEquals(20, map.get(first, -1));
+		assertEquals(last[1], map.keyAt(map.capacity() - 1));
+		assertEquals(last[2], map.keyAt(0));
+		assertEquals(first, map.keyAt(1));
+		assertEquals(0, map.keyAt(2));
+	}
+
+	@Test
+	public void removeLeavesEntriesAtTheirHomeSlot()
+	{
+		int[] last = keysWithHome(map.capacity() - 1, 2, 1);
+		int second = keysWithHome(1, 1, last[1] + 1)[0];
+		map.put(last[0], 10);
+		map.put(last[1], 11);
+		map.put(second, 30);
+
+		map.remove(last[0]);
+
+		assertEquals(last[1], map.keyAt(map.capacity() - 1));
+		assertEquals(0, map.keyAt(0));
+		assertEquals(second, map.keyAt(1));
+		assertEquals(30, map.get(second, -1));
+		assertFalse(map.containsKey(last[0]));
+	}
+
+	@Test
+	public void matchesHashMapUnderRandomOperations()
+	{
+		Map<Integer, Integer> expected = new HashMap<>();
+		Random random = new Random(46);
+		for (int i = 0; i < 20_000; i++)
+		{
+			int key = 1 + random.nextInt(64);
+			if (random.nextBoolean())
+			{
+				map.put(key, i);
+				expected.put(key, i);
+			}
+			else
+			{
+				map.remove(key);
+				expected.remove(key);
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (int key = 1; key <= 64; key++)
+		{
+			assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+		}
+	}
+
+	// Finds keys whose home slot in an empty map of this capacity is the given slot
+	private int[] keysWithHome(int slot, int count, int from)
+	{
+		int[] found = new int[count];
+		int n = 0;
+		for (int key = from; n < count; key++)
+		{
+			IntIntMap probe = new IntIntMap(4);
+			probe.put(key, 1);
+			if (probe.keyAt(slot) == key)
+			{
+				found[n++] = key;
+			}
+		}
+		return found;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class MeterRegistryTest
+{
+	private final MeterRegistry meters = new MeterRegistry();
+
+	@Test
+	public void drainsExactlyFullOverConfiguredTicks()
+	{
+		int meter = meters.register("Hunger");
+		meters.setDrainTicks(meter, 6000);
+
+		for (int tick = 1; tick <= 6000; tick++)
+		{
+			meters.drainAll();
+			// The carried remainder keeps the running total at floor(tick * FULL / ticks) with no drift
+			assertEquals(FixedPoint.FULL - (long) tick * FixedPoint.FULL / 6000, meters.getUnits(meter));
+		}
+		assertEquals(0, meters.getUnits(meter));
+	}
+
+	@Test
+	public void emptiesOnLastTickForUnevenRate()
+	{
+		int meter = meters.register("Thirst");
+		meters.setDrainTicks(meter, 7);
+
+		for (int tick = 1; tick < 7; tick++)
+		{
+			meters.drainAll();
+		}
+		assertEquals(FixedPoint.FULL - 6L * FixedPoint.FULL / 7, meters.getUnits(meter));
+		meters.drainAll();
+		assertEquals(0, meters.getUnits(meter));
+	}
+
+	@Test
+	public void doubleModifierHalvesTicksToEmpty()
+	{
+		int meter = meters.register("Hunger");
+		meters.setDrainTicks(meter, 3001);
+		meters.setDrainModifier(meter, 2 * MeterRegistry.DRAIN_MODIFIER_SCALE);
+
+		for (int tick = 1; tick <= 1500; tick++)
+		{
+			meters.drainAll();
+		}
+		assertEquals(FixedPoint.FULL - 1500L * 2 * FixedPoint.FULL / 3001, meters.getUnits(meter));
+		meters.drainAll();
+		assertEquals(0, meters.getUnits(meter));
+	}
+
+	@Test
+	public void metersDrainIndependently()
+	{
+		int hunger = meters.register("Hunger");
+		int thirst = meters.register("Thirst");
+		int idle = meters.register("Idle");
+		meters.setDrainTicks(hunger, 300);
+		meters.setDrainTicks(thirst, 200);
+
+		for (int tick = 0; tick < 200; tick++)
+		{
+			meters.drainAll();
+		}
+		assertEquals(FixedPoint.FULL - 200L * FixedPoint.FULL / 300, meters.getUnits(hunger));
+		assertEquals(0, meters.getUnits(thirst));
+		assertEquals(FixedPoint.FULL, meters.getUnits(idle));
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.lang.reflect.Proxy;
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class SupplyIndexTest
+{
+	// Item ids are the array indices
+	private static final String[] ITEM_NAMES = {"null", "Waterskin(4)", "Waterskin(3)", "Waterskin(0)", "Shark", "Apple pie", "Half an apple pie"};
+	private static final int WATERSKIN_4 = 1;
+	private static final int WATERSKIN_3 = 2;
+	private static final int WATERSKIN_0 = 3;
+	private static final int SHARK = 4;
+	private static final int APPLE_PIE = 5;
+	private static final int HALF_APPLE_PIE = 6;
+
+	private final DoseFamilyIndex doseFamilies = buildDoseFamilies();
+	private final SupplyIndex supplies = new SupplyIndex(doseFamilies, itemId -> true, 2);
+
+	public SupplyIndexTest()
+	{
+		// Per portion of the canonical item: meter 0 is thirst from waterskins, meter 1 is hunger from sharks and pies
+		supplies.register(0, itemId -> itemId == WATERSKIN_4 ? 20.0 : 0.0);
+		supplies.register(1, itemId -> itemId == SHARK ? 10.0 : itemId == APPLE_PIE ? 4.0 : 0.0);
+	}
+
+	@Test
+	public void doseFamiliesTrackRemainingPortions()
+	{
+		assertEquals(WATERSKIN_4, doseFamilies.getCanonicalItemId(WATERSKIN_0));
+		assertEquals(0, doseFamilies.getPortions(WATERSKIN_0));
+		assertEquals(3, doseFamilies.getPortions(WATERSKIN_3));
+		assertEquals(APPLE_PIE, doseFamilies.getCanonicalItemId(HALF_APPLE_PIE));
+		assertEquals(2, doseFamilies.getPortions(APPLE_PIE));
+		assertEquals(0, doseFamilies.getFamily(SHARK));
+	}
+
+	@Test
+	public void emptyFamilyMemberAddsNoSupply()
+	{
+		supplies.onQuantityChanged(WATERSKIN_0, 3);
+
+		assertEquals(0, supplies.getTotalUnits(0));
+	}
+
+	@Test
+	public void supplyCountsRemainingPortions()
+	{
+		supplies.onQuantityChanged(WATERSKIN_3, 1);
+		supplies.onQuantityChanged(WATERSKIN_0, 2);
+		supplies.onQuantityChanged(HALF_APPLE_PIE, 1);
+		supplies.onQuantityChanged(SHARK, 2);
+
+		// Restore is per portion, so Waterskin(3) holds three sips and the half pie one of the whole pie's two
+		assertEquals(3 * 20 * FixedPoint.UNITS_PER_PERCENT, supplies.getTotalUnits(0));
+		assertEquals((4 + 2 * 10) * FixedPoint.UNITS_PER_PERCENT, supplies.getTotalUnits(1));
+	}
+
+	private static DoseFamilyIndex buildDoseFamilies()
+	{
+		Client client = (Client) Proxy.newProxyInstance(
+			Client.class.getClassLoader(),
+			new Class<?>[]{Client.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getItemCount":
+						return ITEM_NAMES.length;
+					case "getItemDefinition":
+						return item(ITEM_NAMES[(int) args[0]]);
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		DoseFamilyIndex index = new DoseFamilyIndex();
+		index.build(client);
+		return index;
+	}
+
+	private static ItemComposition item(String name)
+	{
+		return (ItemComposition) Proxy.newProxyInstance(
+			ItemComposition.class.getClassLoader(),
+			new Class<?>[]{ItemComposition.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "getName":
+						return name;
+					case "getNote":
+					case "getPlaceholderTemplateId":
+						return -1;
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			});
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, mr-jammin
+ * All rights reserved.
+ * Licensed under BSD 2-Clause; see the LICENSE file.
+ */
+package com.realism;
+
+import java.awt.Color;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ThresholdLevelsTest
+{
+	// Levels at 0, 10, 20 and 50 percent
+	private final ThresholdLevels levels = ThresholdLevels.build(20, "Low", Color.ORANGE, "Empty", false, "50|Half|#00ff00|true;10|Ten");
+
+	@Test
+	public void buildSortsLevelsAscending()
+	{
+		assertEquals(4, levels.size());
+		assertEquals(0, levels.getUnits(0));
+		assertEquals(10 * FixedPoint.UNITS_PER_PERCENT, levels.getUnits(1));
+		assertEquals(20 * FixedPoint.UNITS_PER_PERCENT, levels.getUnits(2));
+		assertEquals(50 * FixedPoint.UNITS_PER_PERCENT, levels.getUnits(3));
+		assertEquals("Empty", levels.getMessage(0));
+		assertEquals(AlertQueue.CRITICAL_TAG, levels.getColourTag(0));
+		assertEquals("Ten", levels.getMessage(1));
+		assertEquals(AlertQueue.colourTag(Color.ORANGE), levels.getColourTag(1));
+		assertEquals("Half", levels.getMessage(3));
+		assertTrue(levels.isNotify(3));
+		assertFalse(levels.isNotify(2));
+	}
+
+	@Test
+	public void firstCrossedFindsMostSevereCrossedLevel()
+	{
+		assertEquals(levels.size(), levels.firstCrossed(FixedPoint.FULL));
+		assertEquals(levels.size(), levels.firstCrossed(50 * FixedPoint.UNITS_PER_PERCENT + 1));
+		assertEquals(3, levels.firstCrossed(50 * FixedPoint.UNITS_PER_PERCENT));
+		assertEquals(3, levels.firstCrossed(20 * FixedPoint.UNITS_PER_PERCENT + 1));
+		assertEquals(2, levels.firstCrossed(20 * FixedPoint.UNITS_PER_PERCENT));
+		assertEquals(1, levels.firstCrossed(FixedPoint.UNITS_PER_PERCENT));
+		assertEquals(0, levels.firstCrossed(0));
+	}
+
+	@Test
+	public void laterEntriesOverrideAndMalformedEntriesAreSkipped()
+	{
+		ThresholdLevels built = ThresholdLevels.build(20, "Low", Color.ORANGE, "Empty", false, "20|Override;abc|Bad;150|Too high;5|\n5");
+
+		assertEquals(2, built.size());
+		assertEquals("Override", built.getMessage(1));
+	}
+
+	@Test
+	public void registryKeepsAlertStateForUnchangedLevels()
+	{
+		MeterRegistry meters = new MeterRegistry();
+		int meter = meters.register("Hunger");
+		meters.setThresholds(meter, levels, FixedPoint.FULL);
+		meters.setAlertedLevel(meter, 2);
+
+		meters.setThresholds(meter, ThresholdLevels.build(20, "Low", Color.ORANGE, "Empty", false, "50|Half|#00ff00|true;10|Ten"), 30 * FixedPoint.UNITS_PER_PERCENT);
+
+		assertEquals(2, meters.getAlertedLevel(meter));
+	}
+
+	@Test
+	public void registryTreatsCrossedLevelsAsAnnouncedWhenLevelsChange()
+	{
+		MeterRegistry meters = new MeterRegistry();
+		int meter = meters.register("Hunger");
+		meters.setThresholds(meter, levels, FixedPoint.FULL);
+		assertEquals(levels.size(), meters.getAlertedLevel(meter));
+
+		meters.setThresholds(meter, ThresholdLevels.build(25, "Low", Color.ORANGE, "Empty", false, ""), 15 * FixedPoint.UNITS_PER_PERCENT);
+
+		assertEquals(1, meters.getAlertedLevel(meter));
+	}
+}